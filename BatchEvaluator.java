@@ -0,0 +1,139 @@
+// BatchEvaluator.java
+// Allocation-free bulk scoring of poker and blackjack hands over primitive arrays
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+// Offline scoring jobs hand in flat arrays of card codes or CardSet masks and a
+// caller-owned output array; nothing is allocated per hand or per call, so a job's
+// allocation rate is independent of how many hands it scores. main() measures this
+// and fails if a warmed-up batch allocates anything.
+public final class BatchEvaluator {
+    private static final int[] BLACKJACK_VALUE = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 11};
+
+    private BatchEvaluator() {
+    }
+
+    // Poker: score count hands stored as runs of five card codes from cards[from], hand i
+    // at cards[from + 5 * i], into out[outFrom + i]
+    public static void evaluate5(int[] cards, int from, int count, int[] out, int outFrom) {
+        for (int i = 0, c = from; i < count; i++, c += 5) {
+            out[outFrom + i] = PokerEvaluator.evaluate(cards[c], cards[c + 1], cards[c + 2], cards[c + 3], cards[c + 4]);
+        }
+    }
+
+    // Poker: score count seven-card hands (hole cards plus board) stored as runs of seven
+    // card codes from cards[from], into out[outFrom + i]
+    public static void evaluate7(int[] cards, int from, int count, int[] out, int outFrom) {
+        for (int i = 0, c = from; i < count; i++, c += 7) {
+            out[outFrom + i] = PokerEvaluator.evaluate7(cards[c], cards[c + 1], cards[c + 2], cards[c + 3],
+                    cards[c + 4], cards[c + 5], cards[c + 6]);
+        }
+    }
+
+    // Poker: five- or seven-card CardSet masks
+    public static void evaluate(long[] hands, int from, int count, int[] out, int outFrom) {
+        for (int i = 0; i < count; i++) {
+            out[outFrom + i] = PokerEvaluator.evaluate(hands[from + i]);
+        }
+    }
+
+    // Blackjack: single-deck CardSet masks
+    public static void blackjackScores(long[] hands, int from, int count, int[] out, int outFrom) {
+        for (int i = 0; i < count; i++) {
+            out[outFrom + i] = blackjackScore(hands[from + i]);
+        }
+    }
+
+    // Blackjack: variable-length hands of card codes; hand i is cards[ends[i - 1]..ends[i]),
+    // with the first hand starting at 0. Duplicate codes (multi-deck shoes) are fine.
+    public static void blackjackScores(int[] cards, int[] ends, int count, int[] out, int outFrom) {
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int score = 0;
+            int aceCount = 0;
+            for (int c = start; c < ends[i]; c++) {
+                int rank = cards[c] % 13;
+                score += BLACKJACK_VALUE[rank];
+                if (rank == 12) {
+                    aceCount++;
+                }
+            }
+            while (score > 21 && aceCount > 0) {
+                score -= 10;
+                aceCount--;
+            }
+            out[outFrom + i] = score;
+            start = ends[i];
+        }
+    }
+
+    // Blackjack score of a single-deck CardSet, Aces counted as 11 until the hand would bust
+    public static int blackjackScore(long hand) {
+        int aceCount = CardSet.rankCount(hand, 12);
+        int score = 11 * aceCount;
+        for (int rank = 0; rank < 12; rank++) {
+            score += CardSet.rankCount(hand, rank) * BLACKJACK_VALUE[rank];
+        }
+        while (score > 21 && aceCount > 0) {
+            score -= 10;
+            aceCount--;
+        }
+        return score;
+    }
+
+    // Allocation check: score warmed-up batches and exit 1 if any bytes were allocated
+    public static void main(String[] args) {
+        int hands = 1 << 16;
+        int[] cards5 = new int[hands * 5];
+        int[] cards7 = new int[hands * 7];
+        long[] sets = new long[hands];
+        int[] ends = new int[hands];
+        int[] out = new int[hands];
+        SplittableRandom random = new SplittableRandom(42);
+        int[] deck = new int[52];
+        for (int i = 0; i < 52; i++) {
+            deck[i] = i;
+        }
+        for (int h = 0; h < hands; h++) {
+            for (int i = 0; i < 7; i++) {
+                int j = i + random.nextInt(52 - i);
+                int swap = deck[i];
+                deck[i] = deck[j];
+                deck[j] = swap;
+            }
+            System.arraycopy(deck, 0, cards5, h * 5, 5);
+            System.arraycopy(deck, 0, cards7, h * 7, 7);
+            sets[h] = CardSet.of(deck[0], deck[1], deck[2], deck[3], deck[4]);
+            ends[h] = h * 5 + 2 + h % 4;
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // Without per-thread allocation accounting the check would pass vacuously
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.err.println("Per-thread allocation accounting is not supported by this JVM");
+            System.exit(1);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long allocated = 0;
+        long start = 0;
+        for (int round = 0; round < 20; round++) {
+            if (round == 10) {
+                allocated = threads.getCurrentThreadAllocatedBytes();
+                start = System.nanoTime();
+            }
+            evaluate5(cards5, 0, hands, out, 0);
+            evaluate7(cards7, 0, hands, out, 0);
+            evaluate(sets, 0, hands, out, 0);
+            blackjackScores(sets, 0, hands, out, 0);
+            blackjackScores(cards5, ends, hands, out, 0);
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        System.out.printf("%d hands x 5 batch kinds x 10 rounds in %.1f ms, %d bytes allocated%n",
+                hands, nanos / 1e6, allocated);
+        if (allocated != 0) {
+            System.err.println("Batch evaluation allocated " + allocated + " bytes");
+            System.exit(1);
+        }
+    }
+}
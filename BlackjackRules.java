@@ -0,0 +1,145 @@
+// BlackjackRules.java
+// Table rules of a blackjack variant, shared by the game, the simulator and the solver
+
+// Immutable value: equal rule sets are interchangeable keys for cached strategy charts.
+// GAME is what the Swing table plays (one deck reshuffled every round, dealer stands on
+// all 17s, double on any two cards, one split, a two-card 21 is just 21). STANDARD is a
+// common casino shoe game. The with* methods derive variants.
+public final class BlackjackRules {
+    public static final BlackjackRules GAME = new BlackjackRules(1, false, true, true, 2, false, false, 1.0, false);
+    public static final BlackjackRules STANDARD = new BlackjackRules(6, false, true, true, 4, true, true, 1.5, true);
+
+    public static final int MAX_HANDS = 4;
+
+    // Decks in the shoe; 0 = infinite deck (solver only)
+    public final int decks;
+    public final boolean dealerHitsSoft17;
+    // Double on any first two cards, and again on two-card hands after a split
+    public final boolean doubleAllowed;
+    public final boolean doubleAfterSplit;
+    // Hands a player may end up with by splitting: 1 = no splits, 2 = one split, up to MAX_HANDS
+    public final int maxHands;
+    // Give up half the bet as the first decision, after any dealer peek
+    public final boolean lateSurrender;
+    // Whether a two-card 21 is a blackjack that beats other 21s and pays blackjackPayout
+    public final boolean naturals;
+    public final double blackjackPayout;
+    // Dealer checks for a natural under an Ace or ten before anyone plays
+    public final boolean dealerPeeks;
+
+    public BlackjackRules(int decks, boolean dealerHitsSoft17, boolean doubleAllowed, boolean doubleAfterSplit,
+                          int maxHands, boolean lateSurrender, boolean naturals, double blackjackPayout,
+                          boolean dealerPeeks) {
+        if (decks < 0 || decks > DeckComposition.MAX_DECKS) {
+            throw new IllegalArgumentException("Expected 0 to " + DeckComposition.MAX_DECKS + " decks, got " + decks);
+        }
+        if (maxHands < 1 || maxHands > MAX_HANDS) {
+            throw new IllegalArgumentException("Expected 1 to " + MAX_HANDS + " hands, got " + maxHands);
+        }
+        // Payouts in tenths of a bet keep simulator results exact
+        if (!(blackjackPayout >= 1 && blackjackPayout <= 2)
+                || Math.abs(blackjackPayout * 10 - Math.rint(blackjackPayout * 10)) > 1e-9) {
+            throw new IllegalArgumentException("Expected a blackjack payout from 1 to 2 in tenths, got " + blackjackPayout);
+        }
+        this.decks = decks;
+        this.dealerHitsSoft17 = dealerHitsSoft17;
+        this.doubleAllowed = doubleAllowed;
+        this.doubleAfterSplit = doubleAllowed && doubleAfterSplit;
+        this.maxHands = maxHands;
+        this.lateSurrender = lateSurrender;
+        this.naturals = naturals;
+        this.blackjackPayout = blackjackPayout;
+        this.dealerPeeks = naturals && dealerPeeks;
+    }
+
+    public BlackjackRules withDecks(int decks) {
+        return new BlackjackRules(decks, dealerHitsSoft17, doubleAllowed, doubleAfterSplit, maxHands, lateSurrender,
+                naturals, blackjackPayout, dealerPeeks);
+    }
+
+    public BlackjackRules withDealerHitsSoft17(boolean dealerHitsSoft17) {
+        return new BlackjackRules(decks, dealerHitsSoft17, doubleAllowed, doubleAfterSplit, maxHands, lateSurrender,
+                naturals, blackjackPayout, dealerPeeks);
+    }
+
+    public BlackjackRules withDoubling(boolean doubleAllowed, boolean doubleAfterSplit) {
+        return new BlackjackRules(decks, dealerHitsSoft17, doubleAllowed, doubleAfterSplit, maxHands, lateSurrender,
+                naturals, blackjackPayout, dealerPeeks);
+    }
+
+    public BlackjackRules withMaxHands(int maxHands) {
+        return new BlackjackRules(decks, dealerHitsSoft17, doubleAllowed, doubleAfterSplit, maxHands, lateSurrender,
+                naturals, blackjackPayout, dealerPeeks);
+    }
+
+    public BlackjackRules withLateSurrender(boolean lateSurrender) {
+        return new BlackjackRules(decks, dealerHitsSoft17, doubleAllowed, doubleAfterSplit, maxHands, lateSurrender,
+                naturals, blackjackPayout, dealerPeeks);
+    }
+
+    public BlackjackRules withNaturals(boolean naturals, double blackjackPayout, boolean dealerPeeks) {
+        return new BlackjackRules(decks, dealerHitsSoft17, doubleAllowed, doubleAfterSplit, maxHands, lateSurrender,
+                naturals, blackjackPayout, dealerPeeks);
+    }
+
+    // Blackjack: Whether the dealer draws on a total
+    public boolean dealerHits(int total, boolean soft) {
+        return total < 17 || (dealerHitsSoft17 && total == 17 && soft);
+    }
+
+    public boolean splitAllowed() {
+        return maxHands > 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BlackjackRules)) {
+            return false;
+        }
+        BlackjackRules other = (BlackjackRules) o;
+        return decks == other.decks && dealerHitsSoft17 == other.dealerHitsSoft17
+                && doubleAllowed == other.doubleAllowed && doubleAfterSplit == other.doubleAfterSplit
+                && maxHands == other.maxHands && lateSurrender == other.lateSurrender && naturals == other.naturals
+                && blackjackPayout == other.blackjackPayout && dealerPeeks == other.dealerPeeks;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = decks;
+        h = 31 * h + (dealerHitsSoft17 ? 1 : 0);
+        h = 31 * h + (doubleAllowed ? 1 : 0);
+        h = 31 * h + (doubleAfterSplit ? 1 : 0);
+        h = 31 * h + maxHands;
+        h = 31 * h + (lateSurrender ? 1 : 0);
+        h = 31 * h + (naturals ? 1 : 0);
+        h = 31 * h + Double.hashCode(blackjackPayout);
+        return 31 * h + (dealerPeeks ? 1 : 0);
+    }
+
+    // Short form, e.g. "6D S17 DA DAS H4 LS BJ 3:2 peek"
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(decks == 0 ? "inf" : decks + "D");
+        sb.append(dealerHitsSoft17 ? " H17" : " S17");
+        if (doubleAllowed) {
+            sb.append(doubleAfterSplit ? " DA DAS" : " DA");
+        }
+        if (maxHands > 1) {
+            sb.append(" H").append(maxHands);
+        }
+        if (lateSurrender) {
+            sb.append(" LS");
+        }
+        if (naturals) {
+            sb.append(blackjackPayout == 1.5 ? " BJ 3:2" : blackjackPayout == 1.2 ? " BJ 6:5"
+                    : " BJ " + blackjackPayout + ":1");
+            if (dealerPeeks) {
+                sb.append(" peek");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,451 @@
+// BlackjackSimulator.java
+// Headless multi-threaded blackjack simulation for measuring house edge
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Plays a BlackjackRules variant: player and dealer get two cards each, naturals are
+// settled first where the rules have them, the player plays every hand (hit, stand,
+// double, split, surrender) in a reused PlayerHands, and the dealer draws by the rules if
+// any hand is still standing. Results are kept in tenths of a bet, which makes every
+// payout (3:2, 6:5, surrender) exact.
+//
+// Each worker thread owns one table dealing from its own Shoe, shuffled from its own
+// split of the run's ShuffleSource. By default the shoe is reshuffled every round, which
+// a lazily shuffled Shoe does at the cost of the cards the round used. Workers share
+// nothing but the LongAdder totals they add to once per batch.
+//
+// Shoe mode instead reshuffles at the cut card, and files each round under the Hi-Lo
+// true count at its start. A round that reaches the back of the shoe is finished from
+// the earlier rounds' discards (see Shoe), so any cut up to the last card plays. Per-bin
+// counts are kept in
+// plain arrays on the table and added to shared AtomicLongArray histograms per batch.
+public final class BlackjackSimulator {
+    private static final int BATCH_ROUNDS = 1 << 16;
+    // Results are counted in tenths of a bet
+    private static final int UNIT = 10;
+
+    // True-count bins: floor of the true count, clamped to MIN_TRUE_COUNT..MAX_TRUE_COUNT
+    public static final int MIN_TRUE_COUNT = -8;
+    public static final int MAX_TRUE_COUNT = 8;
+    public static final int BINS = MAX_TRUE_COUNT - MIN_TRUE_COUNT + 1;
+
+    // Player decision for a hand: hard total (Aces as 1), whether an Ace counts 11, pair rank
+    // (0 if not a pair), dealer's upcard rank, and the extra actions this hand may take
+    @FunctionalInterface
+    public interface Strategy {
+        BlackjackSolver.Action decide(int hard, boolean ace, int pairRank, int upcard, boolean canDouble,
+                                      boolean canSplit, boolean canSurrender);
+    }
+
+    // Hit below 17 like the dealer
+    public static final Strategy MIMIC_DEALER = (hard, ace, pairRank, upcard, canDouble, canSplit, canSurrender) ->
+            BlackjackSolver.bestTotal(hard, ace) < 17 ? BlackjackSolver.Action.HIT : BlackjackSolver.Action.STAND;
+    // Hit only when no card can bust the hand
+    public static final Strategy NEVER_BUST = (hard, ace, pairRank, upcard, canDouble, canSplit, canSurrender) ->
+            hard <= 11 ? BlackjackSolver.Action.HIT : BlackjackSolver.Action.STAND;
+
+    private BlackjackSimulator() {
+    }
+
+    // Basic strategy of a rule set, straight from its cached chart
+    public static Strategy basicStrategy(BlackjackRules rules) {
+        return BlackjackSolver.chart(rules)::action;
+    }
+
+    // Totals of a run; every round starts as a one-unit bet
+    public static final class Result {
+        public final BlackjackRules rules;
+        public final long rounds;
+        public final long wins;
+        public final long losses;
+        public final long pushes;
+        public final long playerBusts;
+        public final long dealerBusts;
+        // Player's net result and its sum of squares, in tenths of a bet
+        public final long net;
+        public final long netSquares;
+        public final long nanos;
+        public final CountBins bins;
+
+        Result(BlackjackRules rules, long wins, long losses, long pushes, long playerBusts, long dealerBusts,
+               long net, long netSquares, long nanos, CountBins bins) {
+            this.rules = rules;
+            this.rounds = wins + losses + pushes;
+            this.wins = wins;
+            this.losses = losses;
+            this.pushes = pushes;
+            this.playerBusts = playerBusts;
+            this.dealerBusts = dealerBusts;
+            this.net = net;
+            this.netSquares = netSquares;
+            this.nanos = nanos;
+            this.bins = bins;
+        }
+
+        // Player's expected result per unit bet
+        public double playerEdge() {
+            return (double) net / UNIT / rounds;
+        }
+
+        public double houseEdge() {
+            return -playerEdge();
+        }
+
+        // Half-width of the 95% interval of the edge
+        public double edgeHalfWidth() {
+            double mean = playerEdge();
+            double meanSquare = (double) netSquares / (UNIT * UNIT) / rounds;
+            return 1.959964 * Math.sqrt(Math.max(0, meanSquare - mean * mean) / rounds);
+        }
+
+        public double roundsPerSecond() {
+            return rounds / (nanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s, %,d rounds: house edge %.3f%% ± %.3f, win %.2f%%, push %.2f%%, loss %.2f%% "
+                            + "(player busts %.2f%%, dealer busts %.2f%%), %,.0f rounds/s",
+                    rules, rounds, 100 * houseEdge(), 100 * edgeHalfWidth(), 100.0 * wins / rounds,
+                    100.0 * pushes / rounds, 100.0 * losses / rounds, 100.0 * playerBusts / rounds,
+                    100.0 * dealerBusts / rounds, roundsPerSecond());
+        }
+    }
+
+    // Outcomes per true-count bin
+    public static final class CountBins {
+        private final long[] rounds;
+        private final long[] wins;
+        private final long[] losses;
+        private final long[] net;
+
+        CountBins(long[] rounds, long[] wins, long[] losses, long[] net) {
+            this.rounds = rounds;
+            this.wins = wins;
+            this.losses = losses;
+            this.net = net;
+        }
+
+        // Bin of a true count
+        public static int bin(double trueCount) {
+            int floor = (int) Math.floor(trueCount);
+            return Math.max(MIN_TRUE_COUNT, Math.min(MAX_TRUE_COUNT, floor)) - MIN_TRUE_COUNT;
+        }
+
+        public static int trueCount(int bin) {
+            return bin + MIN_TRUE_COUNT;
+        }
+
+        public long rounds(int bin) {
+            return rounds[bin];
+        }
+
+        public double winRate(int bin) {
+            return (double) wins[bin] / rounds[bin];
+        }
+
+        public double lossRate(int bin) {
+            return (double) losses[bin] / rounds[bin];
+        }
+
+        // Player's expected result per unit bet in a bin
+        public double playerEdge(int bin) {
+            return (double) net[bin] / UNIT / rounds[bin];
+        }
+
+        @Override
+        public String toString() {
+            long total = 0;
+            for (long n : rounds) {
+                total += n;
+            }
+            StringBuilder sb = new StringBuilder("  TC      share    win    loss  player edge\n");
+            for (int bin = 0; bin < BINS; bin++) {
+                if (rounds[bin] == 0) {
+                    continue;
+                }
+                String label = bin == 0 ? "<=" + trueCount(bin) : bin == BINS - 1 ? ">=" + trueCount(bin)
+                        : String.valueOf(trueCount(bin));
+                sb.append(String.format("%5s %8.2f%% %6.2f%% %6.2f%% %+9.3f%%%n", label, 100.0 * rounds[bin] / total,
+                        100 * winRate(bin), 100 * lossRate(bin), 100 * playerEdge(bin)));
+            }
+            return sb.toString();
+        }
+    }
+
+    // Play the given number of rounds, a freshly shuffled shoe every round, on one table per worker thread
+    public static Result simulate(Strategy strategy, BlackjackRules rules, long rounds, int workers, long seed) {
+        return run(strategy, rules, 0, rounds, workers, seed);
+    }
+
+    // Play the given number of rounds from shoes reshuffled at the cut card, penetration in (0, 1]
+    public static Result simulate(Strategy strategy, BlackjackRules rules, double penetration, long rounds,
+                                  int workers, long seed) {
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("Expected a penetration in (0, 1], got " + penetration);
+        }
+        return run(strategy, rules, penetration, rounds, workers, seed);
+    }
+
+    private static Result run(Strategy strategy, BlackjackRules rules, double penetration, long rounds,
+                              int workers, long seed) {
+        if (rounds < 1 || workers < 1) {
+            throw new IllegalArgumentException("Expected positive rounds and workers, got " + rounds + ", " + workers);
+        }
+        if (rules.decks < 1) {
+            throw new IllegalArgumentException("Cannot deal from an infinite deck: " + rules);
+        }
+        Totals totals = new Totals();
+        ShuffleSource root = ShuffleSource.seeded(seed);
+        List<Table> tables = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            long share = rounds / workers + (i < rounds % workers ? 1 : 0);
+            ShuffleSource source = root.split();
+            Shoe shoe = new Shoe(rules.decks, penetration == 0 ? 1 : penetration, source);
+            tables.add(new Table(strategy, rules, share, shoe, penetration == 0, totals));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        try {
+            List<Future<Void>> played = pool.invokeAll(tables);
+            for (int i = 0; i < played.size(); i++) {
+                join(played.get(i), i, rules);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } finally {
+            pool.shutdown();
+        }
+        long nanos = System.nanoTime() - start;
+        long[] binRounds = new long[BINS];
+        long[] binWins = new long[BINS];
+        long[] binLosses = new long[BINS];
+        long[] binNet = new long[BINS];
+        for (int bin = 0; bin < BINS; bin++) {
+            binRounds[bin] = totals.binRounds.get(bin);
+            binWins[bin] = totals.binWins.get(bin);
+            binLosses[bin] = totals.binLosses.get(bin);
+            binNet[bin] = totals.binNet.get(bin);
+        }
+        return new Result(rules, totals.wins.sum(), totals.losses.sum(), totals.pushes.sum(),
+                totals.playerBusts.sum(), totals.dealerBusts.sum(), totals.net.sum(), totals.netSquares.sum(), nanos,
+                new CountBins(binRounds, binWins, binLosses, binNet));
+    }
+
+    // Wait for a table; a table that threw fails the run with its own exception as the cause
+    private static void join(Future<Void> table, int index, BlackjackRules rules) throws InterruptedException {
+        try {
+            table.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulator table " + index + " failed playing " + rules, e.getCause());
+        }
+    }
+
+    // Shared striped counters
+    private static final class Totals {
+        final LongAdder wins = new LongAdder();
+        final LongAdder losses = new LongAdder();
+        final LongAdder pushes = new LongAdder();
+        final LongAdder playerBusts = new LongAdder();
+        final LongAdder dealerBusts = new LongAdder();
+        final LongAdder net = new LongAdder();
+        final LongAdder netSquares = new LongAdder();
+        final AtomicLongArray binRounds = new AtomicLongArray(BINS);
+        final AtomicLongArray binWins = new AtomicLongArray(BINS);
+        final AtomicLongArray binLosses = new AtomicLongArray(BINS);
+        final AtomicLongArray binNet = new AtomicLongArray(BINS);
+    }
+
+    // One worker's table; everything but the totals is confined to its thread
+    private static final class Table implements Callable<Void> {
+        private final Strategy strategy;
+        private final BlackjackRules rules;
+        private final long rounds;
+        private final Totals totals;
+        private final Shoe shoe;
+        // Reshuffle before every round rather than at the cut card
+        private final boolean freshShoe;
+        private final PlayerHands hands = new PlayerHands();
+        private final int naturalWin;
+        private long wins;
+        private long losses;
+        private long pushes;
+        private long playerBusts;
+        private long dealerBusts;
+        private long net;
+        private long netSquares;
+        private final long[] binRounds = new long[BINS];
+        private final long[] binWins = new long[BINS];
+        private final long[] binLosses = new long[BINS];
+        private final long[] binNet = new long[BINS];
+
+        Table(Strategy strategy, BlackjackRules rules, long rounds, Shoe shoe, boolean freshShoe, Totals totals) {
+            this.strategy = strategy;
+            this.rules = rules;
+            this.rounds = rounds;
+            this.shoe = shoe;
+            this.freshShoe = freshShoe;
+            this.totals = totals;
+            this.naturalWin = (int) Math.round(rules.blackjackPayout * UNIT);
+        }
+
+        @Override
+        public Void call() {
+            long played = 0;
+            while (played < rounds) {
+                long batch = Math.min(BATCH_ROUNDS, rounds - played);
+                for (long i = 0; i < batch; i++) {
+                    if (freshShoe) {
+                        shoe.shuffle();
+                    } else {
+                        shoe.shuffleIfCut();
+                    }
+                    record(CountBins.bin(shoe.trueCount()), playRound());
+                }
+                played += batch;
+                flush();
+            }
+            return null;
+        }
+
+        private int deal() {
+            return shoe.deal();
+        }
+
+        // One round; returns the player's net result in tenths of a bet
+        private int playRound() {
+            hands.reset(UNIT);
+            hands.add(deal());
+            int hole = DeckComposition.rankOf(deal());
+            hands.add(deal());
+            int upcard = DeckComposition.rankOf(deal());
+            int dealerHard = hole + upcard;
+            boolean dealerAce = hole == 1 || upcard == 1;
+            boolean dealerNatural = rules.naturals && dealerAce && dealerHard == 11;
+            if (rules.naturals && hands.isNatural()) {
+                return dealerNatural ? 0 : naturalWin;
+            }
+            if (dealerNatural && rules.dealerPeeks) {
+                return -UNIT;
+            }
+            while (!hands.done()) {
+                if (hands.needsCard()) {
+                    hands.add(deal());
+                    continue;
+                }
+                int hand = hands.active();
+                boolean canDouble = hands.canDouble(rules);
+                boolean canSplit = hands.canSplit(rules);
+                boolean canSurrender = hands.canSurrender(rules);
+                BlackjackSolver.Action action = strategy.decide(hands.hard(hand), hands.soft(hand),
+                        hands.pairRank(hand), upcard, canDouble, canSplit, canSurrender);
+                if (action == BlackjackSolver.Action.HIT) {
+                    hands.add(deal());
+                } else if (action == BlackjackSolver.Action.STAND) {
+                    hands.stand();
+                } else if (action == BlackjackSolver.Action.DOUBLE && canDouble) {
+                    hands.doubleDown(deal());
+                } else if (action == BlackjackSolver.Action.SPLIT && canSplit) {
+                    hands.split();
+                } else if (action == BlackjackSolver.Action.SURRENDER && canSurrender) {
+                    hands.surrender();
+                } else {
+                    throw new IllegalStateException("Strategy chose " + action + ", which " + rules
+                            + " does not allow for " + hands);
+                }
+            }
+            for (int hand = 0; hand < hands.hands(); hand++) {
+                if (hands.status(hand) == PlayerHands.Status.BUSTED) {
+                    playerBusts++;
+                }
+            }
+            // Without a peek a dealer natural is only found now, and takes every whole bet
+            if (dealerNatural) {
+                int net = 0;
+                for (int hand = 0; hand < hands.hands(); hand++) {
+                    boolean surrendered = hands.status(hand) == PlayerHands.Status.SURRENDERED;
+                    net -= surrendered ? hands.bet(hand) / 2 : hands.bet(hand);
+                }
+                return net;
+            }
+            int dealerTotal = BlackjackSolver.bestTotal(dealerHard, dealerAce);
+            if (hands.anyStanding()) {
+                while (rules.dealerHits(dealerTotal, dealerTotal != dealerHard)) {
+                    int card = DeckComposition.rankOf(deal());
+                    dealerHard += card;
+                    dealerAce |= card == 1;
+                    dealerTotal = BlackjackSolver.bestTotal(dealerHard, dealerAce);
+                }
+                if (dealerTotal > 21) {
+                    dealerBusts++;
+                }
+            }
+            return hands.result(dealerTotal);
+        }
+
+        private void record(int bin, int result) {
+            net += result;
+            netSquares += (long) result * result;
+            binRounds[bin]++;
+            binNet[bin] += result;
+            if (result > 0) {
+                wins++;
+                binWins[bin]++;
+            } else if (result < 0) {
+                losses++;
+                binLosses[bin]++;
+            } else {
+                pushes++;
+            }
+        }
+
+        private void flush() {
+            totals.wins.add(wins);
+            totals.losses.add(losses);
+            totals.pushes.add(pushes);
+            totals.playerBusts.add(playerBusts);
+            totals.dealerBusts.add(dealerBusts);
+            totals.net.add(net);
+            totals.netSquares.add(netSquares);
+            wins = losses = pushes = playerBusts = dealerBusts = net = netSquares = 0;
+            for (int bin = 0; bin < BINS; bin++) {
+                if (binRounds[bin] != 0) {
+                    totals.binRounds.getAndAdd(bin, binRounds[bin]);
+                    totals.binWins.getAndAdd(bin, binWins[bin]);
+                    totals.binLosses.getAndAdd(bin, binLosses[bin]);
+                    totals.binNet.getAndAdd(bin, binNet[bin]);
+                    binRounds[bin] = binWins[bin] = binLosses[bin] = binNet[bin] = 0;
+                }
+            }
+        }
+    }
+
+    // Run every built-in strategy at the game's rules, then basic strategy on standard
+    // six-deck shoes at several penetrations: java BlackjackSimulator [rounds] [workers]
+    public static void main(String[] args) {
+        long rounds = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String[] names = {"Basic strategy", "Mimic the dealer", "Never bust"};
+        Strategy[] strategies = {basicStrategy(BlackjackRules.GAME), MIMIC_DEALER, NEVER_BUST};
+        for (int i = 0; i < strategies.length; i++) {
+            System.out.println(names[i] + ": " + simulate(strategies[i], BlackjackRules.GAME, rounds, workers, 42 + i));
+        }
+        // Shoe mode, down to a cut at the last card, where rounds run into the discards
+        Result single = simulate(strategies[0], BlackjackRules.GAME, 0.9, rounds, workers, 42);
+        System.out.printf("%nOne deck, 90%% penetration: %s%n%s", single, single.bins);
+        BlackjackRules standard = BlackjackRules.STANDARD;
+        Strategy basic = basicStrategy(standard);
+        for (double penetration : new double[] {0.5, 0.75, 0.9, 1.0}) {
+            Result result = simulate(basic, standard, penetration, rounds, workers, 42);
+            System.out.printf("%n%.0f%% penetration: %s%n%s", 100 * penetration, result, result.bins);
+        }
+    }
+}
@@ -0,0 +1,608 @@
+// BlackjackSolver.java
+// Expected values and the basic-strategy chart for a blackjack rule set, infinite deck or finite shoe
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// A hand is the compact state (hard total with Aces counted as 1, holds an Ace); the
+// remaining shoe is a DeckComposition long. Hit values are memoized on (shoe, state) and
+// dealer distributions come from a DealerOdds engine, so each reachable position is
+// solved once. With an infinite deck every draw has fixed
+// odds (1/13, tens 4/13), the shoe never changes and the memo collapses to a few hundred
+// states; a finite shoe removes every card it deals.
+//
+// EVs are per unit bet; under a peek rule they assume the dealer has no natural, without
+// one a dealer natural scores as a plain 21. Resplits are valued as if every split hand
+// had the full remaining hand budget, the usual approximation. The chart averages the
+// exact two-card EVs of each total over the two-card hands making it, so every query
+// afterwards is a couple of array reads. Charts are cached per rule set, and hosted rule
+// sets come precomputed from the memory-mapped BlackjackTable when it has been generated.
+//
+// decide() answers for one live hand instead, from the exact unseen cards: the first
+// card of hitting, doubling and splitting is forked per rank on the common pool. The
+// workers borrow engines from a pool made for that decision, so no two run on one memo at
+// once, and every engine is dropped with its memos when the decision returns.
+public final class BlackjackSolver {
+    public enum Action { STAND, HIT, DOUBLE, SPLIT, SURRENDER }
+
+    // Memo tag, kept above the hand bits of a state
+    private static final int HIT_TAG = 1 << 12;
+    // Memo limit; a six-deck chart touches about 1.4 million dealer positions
+    private static final int MAX_ENTRIES = 1 << 22;
+    // Memo limit of each live-hand engine (at most one per pool worker, for one decision)
+    private static final int LIVE_MAX_ENTRIES = 1 << 19;
+
+    // Solved charts, shared by every table, simulator and view playing the same rules
+    private static final ConcurrentHashMap<BlackjackRules, Chart> CHARTS = new ConcurrentHashMap<>();
+
+    private final BlackjackRules rules;
+    private final int decks;
+    private final DealerOdds dealerOdds;
+    private final ShoeMemo hitMemo;
+    private final double[] hitRow = new double[1];
+
+    private BlackjackSolver(BlackjackRules rules, int maxEntries) {
+        this.rules = rules;
+        this.decks = rules.decks;
+        this.dealerOdds = new DealerOdds(decks == 0, rules.dealerHitsSoft17, maxEntries);
+        this.hitMemo = new ShoeMemo(1, maxEntries);
+    }
+
+    // Basic-strategy chart of a rule set: from the mapped table if it holds the rules,
+    // otherwise solved on first use; cached either way
+    public static Chart chart(BlackjackRules rules) {
+        return CHARTS.computeIfAbsent(rules, r -> {
+            BlackjackTable table = BlackjackTable.defaultTable();
+            Chart chart = table != null ? table.chart(r) : null;
+            return chart != null ? chart : solve(r);
+        });
+    }
+
+    // Solve a rule set's chart without the cache
+    public static Chart solve(BlackjackRules rules) {
+        return new BlackjackSolver(rules, MAX_ENTRIES).chart();
+    }
+
+    // Chart for the rules the game's table plays
+    public static Chart basicStrategy() {
+        return chart(BlackjackRules.GAME);
+    }
+
+    // Blackjack: Exact EV of every action for the active hand of a live table; shoe holds
+    // every unseen card (the undealt shoe and the dealer's hole card)
+    public static Decision decide(BlackjackRules rules, long shoe, PlayerHands hands, int upcard) {
+        if (hands.done()) {
+            throw new IllegalStateException("No hand left to play: " + hands);
+        }
+        int hand = hands.active();
+        return decide(rules, shoe, hands.hard(hand), hands.soft(hand), hands.pairRank(hand), hands.hands(), upcard,
+                hands.canDouble(rules), hands.canSplit(rules), hands.canSurrender(rules));
+    }
+
+    // Blackjack: Exact EV of every action for a hand (hard total with Aces as 1, an Ace
+    // counting 11, pair rank or 0) with handsInPlay hands on the table
+    public static Decision decide(BlackjackRules rules, long shoe, int hard, boolean ace, int pairRank,
+                                  int handsInPlay, int upcard, boolean canDouble, boolean canSplit,
+                                  boolean canSurrender) {
+        if (upcard < 1 || upcard > 10 || hard < 2 || hard > 21) {
+            throw new IllegalArgumentException("No live hand for hard " + hard + " against upcard " + upcard);
+        }
+        long start = System.nanoTime();
+        int split = canSplit ? pairRank : 0;
+        LiveEngines engines = new LiveEngines(rules);
+        double[] branches = ForkJoinPool.commonPool().invoke(
+                new LiveTask(engines, shoe, hard, ace, split, handsInPlay, upcard, canDouble, 1, 11));
+        double[] ev = new double[Chart.STRIDE];
+        Arrays.fill(ev, Double.NaN);
+        BlackjackSolver engine = engines.borrow();
+        ev[Action.STAND.ordinal()] = engine.standValue(shoe, bestTotal(hard, ace), upcard);
+        engines.release(engine);
+        ev[Action.HIT.ordinal()] = branches[0];
+        if (canDouble) {
+            ev[Action.DOUBLE.ordinal()] = branches[1];
+        }
+        if (split != 0) {
+            ev[Action.SPLIT.ordinal()] = 2 * branches[2];
+        }
+        if (canSurrender) {
+            ev[Action.SURRENDER.ordinal()] = -0.5;
+        }
+        return new Decision(ev, System.nanoTime() - start);
+    }
+
+    // Live-hand engines of one decision: a task borrows an idle engine, or makes one when
+    // every engine is busy, and hands it back when its branch is summed
+    private static final class LiveEngines {
+        private final BlackjackRules rules;
+        private final ConcurrentLinkedQueue<BlackjackSolver> idle = new ConcurrentLinkedQueue<>();
+
+        LiveEngines(BlackjackRules rules) {
+            this.rules = rules;
+        }
+
+        BlackjackSolver borrow() {
+            BlackjackSolver engine = idle.poll();
+            return engine != null ? engine : new BlackjackSolver(rules, LIVE_MAX_ENTRIES);
+        }
+
+        void release(BlackjackSolver engine) {
+            idle.offer(engine);
+        }
+    }
+
+    // First-card branches of a live hand over a range of ranks; returns the probability-
+    // weighted sums of the hit, double and split-hand EVs
+    private static final class LiveTask extends RecursiveTask<double[]> {
+        private final LiveEngines engines;
+        private final long shoe;
+        private final int hard;
+        private final boolean ace;
+        private final int pairRank;
+        private final int handsInPlay;
+        private final int upcard;
+        private final boolean canDouble;
+        private final int from;
+        private final int to;
+
+        LiveTask(LiveEngines engines, long shoe, int hard, boolean ace, int pairRank, int handsInPlay, int upcard,
+                 boolean canDouble, int from, int to) {
+            this.engines = engines;
+            this.shoe = shoe;
+            this.hard = hard;
+            this.ace = ace;
+            this.pairRank = pairRank;
+            this.handsInPlay = handsInPlay;
+            this.upcard = upcard;
+            this.canDouble = canDouble;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                LiveTask left = split(from, mid);
+                left.fork();
+                double[] sums = split(mid, to).compute();
+                double[] leftSums = left.join();
+                for (int i = 0; i < sums.length; i++) {
+                    sums[i] += leftSums[i];
+                }
+                return sums;
+            }
+            double[] sums = new double[3];
+            BlackjackSolver engine = engines.borrow();
+            double p = engine.probability(shoe, from, engine.cardsLeft(shoe));
+            if (p != 0) {
+                sums[0] = p * engine.hitBranch(shoe, hard, ace, upcard, from);
+                if (canDouble) {
+                    sums[1] = p * engine.doubleBranch(shoe, hard, ace, upcard, from);
+                }
+                if (pairRank != 0) {
+                    sums[2] = p * engine.splitBranch(shoe, pairRank, upcard, handsInPlay + 1, from);
+                }
+            }
+            engines.release(engine);
+            return sums;
+        }
+
+        private LiveTask split(int from, int to) {
+            return new LiveTask(engines, shoe, hard, ace, pairRank, handsInPlay, upcard, canDouble, from, to);
+        }
+    }
+
+    // EVs of every action for one live hand; NaN where the action is not available
+    public static final class Decision {
+        public final Action best;
+        public final long nanos;
+        private final double[] ev;
+
+        Decision(double[] ev, long nanos) {
+            int best = 0;
+            for (int a = 1; a < ev.length; a++) {
+                if (ev[a] > ev[best]) {
+                    best = a;
+                }
+            }
+            this.best = Chart.ACTIONS[best];
+            this.ev = ev;
+            this.nanos = nanos;
+        }
+
+        public double expectedValue(Action action) {
+            return ev[action.ordinal()];
+        }
+
+        // e.g. "HIT (stand -0.5404, hit -0.5398) in 3.2 ms"
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(best.toString()).append(" (");
+            String separator = "";
+            for (Action action : Chart.ACTIONS) {
+                if (!Double.isNaN(ev[action.ordinal()])) {
+                    sb.append(separator).append(action.toString().toLowerCase())
+                            .append(String.format(" %+.4f", ev[action.ordinal()]));
+                    separator = ", ";
+                }
+            }
+            return sb.append(String.format(") in %.1f ms", nanos / 1e6)).toString();
+        }
+    }
+
+    private static int handState(int hard, boolean ace) {
+        return hard | (ace ? 32 : 0);
+    }
+
+    // Best total of a hand: one Ace counts 11 if that does not bust
+    static int bestTotal(int hard, boolean ace) {
+        return ace && hard + 10 <= 21 ? hard + 10 : hard;
+    }
+
+    private int cardsLeft(long shoe) {
+        return decks == 0 ? 13 : DeckComposition.total(shoe);
+    }
+
+    private double probability(long shoe, int rank, int cards) {
+        if (decks == 0) {
+            return (rank == 10 ? 4 : 1) / 13.0;
+        }
+        return DeckComposition.count(shoe, rank) / (double) cards;
+    }
+
+    private long draw(long shoe, int rank) {
+        return decks == 0 ? shoe : DeckComposition.remove(shoe, rank);
+    }
+
+    // Blackjack: EV of standing on a total
+    private double standValue(long shoe, int total, int upcard) {
+        if (total > 21) {
+            return -1;
+        }
+        int slot = dealerOdds.slot(shoe, upcard, rules.dealerPeeks);
+        double ev = dealerOdds.value(slot, DealerOdds.BUST);
+        for (int f = 17; f <= 21; f++) {
+            if (total > f) {
+                ev += dealerOdds.value(slot, f - 17);
+            } else if (total < f) {
+                ev -= dealerOdds.value(slot, f - 17);
+            }
+        }
+        return ev;
+    }
+
+    // Blackjack: EV of taking one card, then standing or hitting on, whichever is better
+    private double hitValue(long shoe, int hard, boolean ace, int upcard) {
+        int state = HIT_TAG | handState(hard, ace) | upcard << 6;
+        int slot = hitMemo.find(shoe, state);
+        if (slot >= 0) {
+            return hitMemo.value(slot, 0);
+        }
+        double ev = 0;
+        int cards = cardsLeft(shoe);
+        for (int rank = 1; rank <= 10; rank++) {
+            double p = probability(shoe, rank, cards);
+            if (p != 0) {
+                ev += p * hitBranch(shoe, hard, ace, upcard, rank);
+            }
+        }
+        hitRow[0] = ev;
+        hitMemo.insert(shoe, state, hitRow);
+        return ev;
+    }
+
+    // Blackjack: EV after hitting and drawing a given rank
+    private double hitBranch(long shoe, int hard, boolean ace, int upcard, int rank) {
+        long next = draw(shoe, rank);
+        int nextHard = hard + rank;
+        boolean nextAce = ace || rank == 1;
+        if (nextHard > 21) {
+            return -1;
+        }
+        return Math.max(standValue(next, bestTotal(nextHard, nextAce), upcard),
+                hitValue(next, nextHard, nextAce, upcard));
+    }
+
+    // Blackjack: EV of doubling: one card at twice the bet
+    private double doubleValue(long shoe, int hard, boolean ace, int upcard) {
+        double ev = 0;
+        int cards = cardsLeft(shoe);
+        for (int rank = 1; rank <= 10; rank++) {
+            double p = probability(shoe, rank, cards);
+            if (p != 0) {
+                ev += p * doubleBranch(shoe, hard, ace, upcard, rank);
+            }
+        }
+        return ev;
+    }
+
+    // Blackjack: EV of a doubled hand that draws a given rank
+    private double doubleBranch(long shoe, int hard, boolean ace, int upcard, int rank) {
+        return 2 * standValue(draw(shoe, rank), bestTotal(hard + rank, ace || rank == 1), upcard);
+    }
+
+    // Blackjack: EV of splitting a pair; shoe already excludes both pair cards
+    private double splitValue(long shoe, int pairRank, int upcard) {
+        return 2 * splitHandValue(shoe, pairRank, upcard, 2);
+    }
+
+    // Blackjack: EV of one split hand holding a single pair card, with `hands` hands in play
+    private double splitHandValue(long shoe, int pairRank, int upcard, int hands) {
+        double ev = 0;
+        int cards = cardsLeft(shoe);
+        for (int rank = 1; rank <= 10; rank++) {
+            double p = probability(shoe, rank, cards);
+            if (p != 0) {
+                ev += p * splitBranch(shoe, pairRank, upcard, hands, rank);
+            }
+        }
+        return ev;
+    }
+
+    // Blackjack: EV of a split hand whose second card is a given rank
+    private double splitBranch(long shoe, int pairRank, int upcard, int hands, int rank) {
+        long next = draw(shoe, rank);
+        int hard = pairRank + rank;
+        boolean ace = pairRank == 1 || rank == 1;
+        double value = standValue(next, bestTotal(hard, ace), upcard);
+        // Split Aces take one card each and are not resplit
+        if (pairRank != 1) {
+            value = Math.max(value, hitValue(next, hard, ace, upcard));
+            if (rules.doubleAfterSplit) {
+                value = Math.max(value, doubleValue(next, hard, ace, upcard));
+            }
+            if (rank == pairRank && hands < rules.maxHands) {
+                value = Math.max(value, 2 * splitHandValue(next, pairRank, upcard, hands + 1));
+            }
+        }
+        return value;
+    }
+
+    // Blackjack: Solve every two-card start against every upcard and fold them into a chart
+    private Chart chart() {
+        long fullShoe = decks == 0 ? DeckComposition.EMPTY : DeckComposition.ofDecks(decks);
+        double[] sums = new double[Chart.ROWS * 10 * Chart.STRIDE];
+        double[] weights = new double[Chart.ROWS * 10];
+        for (int upcard = 1; upcard <= 10; upcard++) {
+            long shoe = draw(fullShoe, upcard);
+            int cards = cardsLeft(shoe);
+            for (int a = 1; a <= 10; a++) {
+                double pa = probability(shoe, a, cards);
+                if (pa == 0) {
+                    continue;
+                }
+                long afterA = draw(shoe, a);
+                int cardsAfterA = decks == 0 ? cards : cards - 1;
+                for (int b = a; b <= 10; b++) {
+                    double pb = probability(afterA, b, cardsAfterA);
+                    if (pb == 0 || (a == 1 && b == 10)) {
+                        continue;
+                    }
+                    double weight = a == b ? pa * pb : 2 * pa * pb;
+                    long hand = draw(afterA, b);
+                    int hard = a + b;
+                    boolean ace = a == 1;
+                    double stand = standValue(hand, bestTotal(hard, ace), upcard);
+                    double hit = hitValue(hand, hard, ace, upcard);
+                    double doubled = rules.doubleAllowed ? doubleValue(hand, hard, ace, upcard) : Double.NaN;
+                    int row = Chart.totalRow(hard, ace);
+                    accumulate(sums, weights, row, upcard, weight, stand, hit, doubled, Double.NaN);
+                    if (a == b) {
+                        double split = rules.splitAllowed() ? splitValue(hand, a, upcard) : Double.NaN;
+                        accumulate(sums, weights, Chart.pairRow(a), upcard, weight, stand, hit, doubled, split);
+                    }
+                }
+            }
+            // Totals no two-card hand makes (hard 21, soft 21 without a natural) are solved
+            // from the full shoe minus the upcard
+            for (int row = 0; row < Chart.ROWS; row++) {
+                if (weights[row * 10 + upcard - 1] == 0 && !Chart.isPairRow(row)) {
+                    int hard = Chart.rowHard(row);
+                    boolean ace = Chart.isSoftRow(row);
+                    accumulate(sums, weights, row, upcard, 1, standValue(shoe, bestTotal(hard, ace), upcard),
+                            hitValue(shoe, hard, ace, upcard),
+                            rules.doubleAllowed ? doubleValue(shoe, hard, ace, upcard) : Double.NaN, Double.NaN);
+                }
+            }
+        }
+        float[] ev = new float[sums.length];
+        for (int i = 0; i < ev.length; i++) {
+            ev[i] = i % Chart.STRIDE == Action.SURRENDER.ordinal()
+                    ? (rules.lateSurrender ? -0.5f : Float.NaN)
+                    : (float) (sums[i] / weights[i / Chart.STRIDE]);
+        }
+        return new Chart(rules, FloatBuffer.wrap(ev));
+    }
+
+    private static void accumulate(double[] sums, double[] weights, int row, int upcard, double weight,
+                                   double stand, double hit, double doubled, double split) {
+        int cell = row * 10 + upcard - 1;
+        weights[cell] += weight;
+        sums[cell * Chart.STRIDE] += weight * stand;
+        sums[cell * Chart.STRIDE + 1] += weight * hit;
+        sums[cell * Chart.STRIDE + 2] += weight * doubled;
+        sums[cell * Chart.STRIDE + 3] += weight * split;
+    }
+
+    // Solved EVs of every chart cell; queries are constant time
+    public static final class Chart {
+        // Rows: hard 4..21, soft 12..21, pairs A..T
+        static final int HARD_ROWS = 18;
+        static final int SOFT_ROWS = 10;
+        static final int ROWS = HARD_ROWS + SOFT_ROWS + 10;
+        // One EV per action in every cell; NaN where the rules forbid it
+        static final int STRIDE = 5;
+        static final int SIZE = ROWS * 10 * STRIDE;
+
+        private static final Action[] ACTIONS = Action.values();
+        private static final String ACTION_LETTERS = "SHDPR";
+
+        public final BlackjackRules rules;
+        // Heap array when solved here, mapped file block when loaded from a BlackjackTable;
+        // only absolute reads, so it is shared by every thread
+        private final FloatBuffer ev;
+
+        Chart(BlackjackRules rules, FloatBuffer ev) {
+            if (ev.capacity() != SIZE) {
+                throw new IllegalArgumentException("Expected " + SIZE + " chart EVs, got " + ev.capacity());
+            }
+            this.rules = rules;
+            this.ev = ev;
+        }
+
+        // Raw EV by index in the table layout: (row * 10 + upcard - 1) * STRIDE + action
+        float value(int index) {
+            return ev.get(index);
+        }
+
+        static int totalRow(int hard, boolean ace) {
+            return ace && hard + 10 <= 21 ? HARD_ROWS + hard - 2 : hard - 4;
+        }
+
+        static int pairRow(int rank) {
+            return HARD_ROWS + SOFT_ROWS + rank - 1;
+        }
+
+        static boolean isSoftRow(int row) {
+            return row >= HARD_ROWS && row < HARD_ROWS + SOFT_ROWS;
+        }
+
+        static boolean isPairRow(int row) {
+            return row >= HARD_ROWS + SOFT_ROWS;
+        }
+
+        // Hard total (Aces as 1) of a total row
+        static int rowHard(int row) {
+            return isSoftRow(row) ? row - HARD_ROWS + 2 : row + 4;
+        }
+
+        private int cell(int hard, boolean ace, int pairRank, int upcard) {
+            if (upcard < 1 || upcard > 10 || hard < 2 || hard > 21) {
+                throw new IllegalArgumentException("No chart cell for hard " + hard + " against upcard " + upcard);
+            }
+            // Soft 12 (A-A unsplit) and soft 13 (A-2) have rows of their own; hard totals
+            // below 4 only arise mid-split and share hard 4's row
+            int row = pairRank != 0 ? pairRow(pairRank) : totalRow(ace ? hard : Math.max(hard, 4), ace);
+            return (row * 10 + upcard - 1) * STRIDE;
+        }
+
+        // EV of an action; hard total counts Aces as 1, pairRank 1..10 for an unplayed pair or 0
+        public double expectedValue(int hard, boolean ace, int pairRank, int upcard, Action action) {
+            return ev.get(cell(hard, ace, pairRank, upcard) + action.ordinal());
+        }
+
+        // Best allowed action for a hand; pairRank is only consulted when splitting is allowed.
+        // The can* flags are the hand's situation (first decision, hands in play); the rules
+        // additionally rule out whatever the table does not offer.
+        public Action action(int hard, boolean ace, int pairRank, int upcard, boolean canDouble, boolean canSplit,
+                             boolean canSurrender) {
+            boolean split = canSplit && pairRank != 0;
+            int cell = cell(hard, ace, split ? pairRank : 0, upcard);
+            int best = 0;
+            for (int a = 1; a < STRIDE; a++) {
+                boolean allowed = a == 1 || (a == 2 && canDouble) || (a == 3 && split) || (a == 4 && canSurrender);
+                // NaN (forbidden by the rules) never compares greater
+                if (allowed && ev.get(cell + a) > ev.get(cell + best)) {
+                    best = a;
+                }
+            }
+            return ACTIONS[best];
+        }
+
+        // Classic chart layout: S, H, D (double), P (split), R (surrender) against upcards 2..A
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(rules.toString());
+            sb.append("\n      2 3 4 5 6 7 8 9 T A\n");
+            for (int row = 0; row < ROWS; row++) {
+                int hard = rowHard(row);
+                String label = isPairRow(row) ? "P " + rankName(row - HARD_ROWS - SOFT_ROWS + 1)
+                        : isSoftRow(row) ? "S " + (hard + 10) : "H " + hard;
+                sb.append(String.format("%-5s", label));
+                for (int i = 0; i < 10; i++) {
+                    int upcard = i == 9 ? 1 : i + 2;
+                    Action action;
+                    if (isPairRow(row)) {
+                        int pair = row - HARD_ROWS - SOFT_ROWS + 1;
+                        action = action(pair == 1 ? 2 : 2 * pair, pair == 1, pair, upcard, true, true, true);
+                    } else {
+                        action = action(hard, isSoftRow(row), 0, upcard, true, false, true);
+                    }
+                    sb.append(' ').append(ACTION_LETTERS.charAt(action.ordinal()));
+                }
+                sb.append('\n');
+            }
+            return sb.toString();
+        }
+
+        private static String rankName(int rank) {
+            return rank == 1 ? "A" : rank == 10 ? "T" : String.valueOf(rank);
+        }
+    }
+
+    // Soft 12, 13 and 14 are different hands; exit 1 if a chart gives two of them the same
+    // hit EV against every upcard
+    private static void checkSoftRows(Chart chart) {
+        for (int hard = 2; hard <= 3; hard++) {
+            boolean same = true;
+            for (int upcard = 1; upcard <= 10; upcard++) {
+                same &= chart.expectedValue(hard, true, 0, upcard, Action.HIT)
+                        == chart.expectedValue(hard + 1, true, 0, upcard, Action.HIT);
+            }
+            if (same) {
+                System.err.printf("%s: soft %d and soft %d share their EVs%n", chart.rules, hard + 10, hard + 11);
+                System.exit(1);
+            }
+        }
+    }
+
+    // Print charts and solve times for the game's rules and standard-rule shoes, then show a
+    // repeated lookup hitting the cache: java BlackjackSolver [decks ...]
+    public static void main(String[] args) {
+        int[] deckCounts = {0, 1, 2, 6};
+        if (args.length > 0) {
+            deckCounts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                deckCounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+        List<BlackjackRules> variants = new ArrayList<>();
+        variants.add(BlackjackRules.GAME);
+        for (int decks : deckCounts) {
+            variants.add(BlackjackRules.STANDARD.withDecks(decks));
+        }
+        variants.add(BlackjackRules.STANDARD.withDealerHitsSoft17(true));
+        for (BlackjackRules rules : variants) {
+            long start = System.nanoTime();
+            Chart chart = chart(rules);
+            System.out.printf("%s(solved in %.1f ms)%n%n", chart, (System.nanoTime() - start) / 1e6);
+        }
+        long start = System.nanoTime();
+        chart(BlackjackRules.STANDARD);
+        System.out.printf("Cached chart lookup: %.3f ms%n%n", (System.nanoTime() - start) / 1e6);
+        for (BlackjackRules checked : variants) {
+            checkSoftRows(chart(checked));
+        }
+        // Live hands: T-6 against a ten with and without the other three sixes gone,
+        // then a pair of eights; each solved twice, since every decision starts on empty memos
+        BlackjackRules rules = BlackjackRules.GAME;
+        long full = DeckComposition.ofDecks(1);
+        long tenSix = DeckComposition.remove(DeckComposition.remove(DeckComposition.remove(full, 10), 6), 10);
+        long sixesGone = DeckComposition.add(tenSix, 6, -3);
+        long eights = DeckComposition.remove(DeckComposition.remove(DeckComposition.remove(full, 8), 8), 10);
+        long[] shoes = {tenSix, sixesGone, eights};
+        int[] hards = {16, 16, 16};
+        int[] pairs = {0, 0, 8};
+        String[] names = {"T-6 v T, one deck", "T-6 v T, no sixes left", "8-8 v T, one deck"};
+        for (int i = 0; i < shoes.length; i++) {
+            Decision first = decide(rules, shoes[i], hards[i], false, pairs[i], 1, 10, true, pairs[i] != 0, false);
+            Decision again = decide(rules, shoes[i], hards[i], false, pairs[i], 1, 10, true, pairs[i] != 0, false);
+            System.out.printf("%s: %s, again %.2f ms%n", names[i], first, again.nanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+// BlackjackTable.java
+// Precomputed blackjack strategy charts for every hosted rule set, in a checksummed, memory-mapped file
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.CRC32;
+
+// Solving a finite-shoe chart takes up to a second per rule set, so the hosted rule sets
+// are solved once, in parallel, and written here. At launch the file is mapped read-only
+// and every chart is a FloatBuffer view over its block: EVs stay in the page cache, not
+// on the heap, and BlackjackSolver.chart() hands them out without solving.
+//
+// Table file: int magic, int version, int chart count, int floats per chart, then per
+// chart an entry of six ints (decks, rule flags, max hands, blackjack payout in tenths,
+// CRC32 of the chart block, reserved), then the chart blocks of little-endian float EVs
+// in the layout of BlackjackSolver.Chart. Each block's CRC is checked when the file is
+// opened; a bad block fails the whole table.
+public final class BlackjackTable {
+    public static final Path DEFAULT_TABLE =
+            Paths.get(System.getProperty("cardsaga.blackjackTable", "blackjack_ev.bin"));
+
+    private static final int MAGIC = 0x424A4556; // "BJEV"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 24;
+
+    // Rule flag bits of an entry
+    private static final int HITS_SOFT_17 = 1;
+    private static final int DOUBLE = 2;
+    private static final int DOUBLE_AFTER_SPLIT = 4;
+    private static final int LATE_SURRENDER = 8;
+    private static final int NATURALS = 16;
+    private static final int PEEK = 32;
+
+    // Rule sets the game and tools offer: the Swing table, and the standard shoe game at
+    // common deck counts with the dealer standing or hitting on soft 17
+    public static final List<BlackjackRules> HOSTED = hostedRules();
+
+    private static volatile BlackjackTable table;
+    private static volatile boolean tableChecked;
+
+    private final Map<BlackjackRules, BlackjackSolver.Chart> charts;
+
+    private BlackjackTable(Map<BlackjackRules, BlackjackSolver.Chart> charts) {
+        this.charts = charts;
+    }
+
+    private static List<BlackjackRules> hostedRules() {
+        List<BlackjackRules> rules = new ArrayList<>();
+        rules.add(BlackjackRules.GAME);
+        for (int decks : new int[] {1, 2, 4, 6, 8}) {
+            rules.add(BlackjackRules.STANDARD.withDecks(decks));
+            rules.add(BlackjackRules.STANDARD.withDecks(decks).withDealerHitsSoft17(true));
+        }
+        return Collections.unmodifiableList(rules);
+    }
+
+    // The mapped default table, or null when it has not been generated
+    public static BlackjackTable defaultTable() {
+        if (!tableChecked) {
+            synchronized (BlackjackTable.class) {
+                if (!tableChecked) {
+                    if (Files.isReadable(DEFAULT_TABLE)) {
+                        try {
+                            table = open(DEFAULT_TABLE);
+                        } catch (IOException | IllegalStateException e) {
+                            System.err.println("Blackjack strategy table not loaded: " + e.getMessage());
+                        }
+                    }
+                    tableChecked = true;
+                }
+            }
+        }
+        return table;
+    }
+
+    // Map a table file and check every chart block against its CRC
+    public static BlackjackTable open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a version " + VERSION + " blackjack strategy table: " + path);
+        }
+        int count = buffer.getInt(8);
+        int floats = buffer.getInt(12);
+        if (floats != BlackjackSolver.Chart.SIZE) {
+            throw new IllegalStateException("Blackjack strategy table has another chart layout: " + path);
+        }
+        long blocks = HEADER_BYTES + (long) count * ENTRY_BYTES;
+        if (count < 0 || buffer.capacity() != blocks + (long) count * floats * 4) {
+            throw new IllegalStateException("Truncated blackjack strategy table: " + path);
+        }
+        Map<BlackjackRules, BlackjackSolver.Chart> charts = new HashMap<>();
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER_BYTES + i * ENTRY_BYTES;
+            BlackjackRules rules = decode(buffer, entry);
+            ByteBuffer block = buffer.position((int) blocks + i * floats * 4).slice().limit(floats * 4);
+            crc.reset();
+            crc.update(block.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(entry + 16)) {
+                throw new IllegalStateException("Checksum mismatch for " + rules + " in " + path);
+            }
+            FloatBuffer ev = block.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            charts.put(rules, new BlackjackSolver.Chart(rules, ev));
+        }
+        return new BlackjackTable(charts);
+    }
+
+    // Chart of a rule set, or null if the table does not hold it
+    public BlackjackSolver.Chart chart(BlackjackRules rules) {
+        return charts.get(rules);
+    }
+
+    public int size() {
+        return charts.size();
+    }
+
+    // Solve the given rule sets in parallel and write them as a table file
+    static void writeTable(Path path, List<BlackjackRules> rules) throws IOException {
+        BlackjackSolver.Chart[] charts = new BlackjackSolver.Chart[rules.size()];
+        ForkJoinPool.commonPool().invoke(new SolveTask(rules, charts, 0, charts.length));
+        int floats = BlackjackSolver.Chart.SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + charts.length * (ENTRY_BYTES + floats * 4))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(charts.length).putInt(floats);
+        int blocks = HEADER_BYTES + charts.length * ENTRY_BYTES;
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < charts.length; i++) {
+            ByteBuffer block = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(blocks + i * floats * 4);
+            for (int j = 0; j < floats; j++) {
+                block.putFloat(charts[i].value(j));
+            }
+            crc.reset();
+            crc.update(buffer.array(), blocks + i * floats * 4, floats * 4);
+            encode(buffer, rules.get(i));
+            buffer.putInt((int) crc.getValue()).putInt(0);
+        }
+        buffer.position(0);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static void encode(ByteBuffer buffer, BlackjackRules rules) {
+        int flags = (rules.dealerHitsSoft17 ? HITS_SOFT_17 : 0) | (rules.doubleAllowed ? DOUBLE : 0)
+                | (rules.doubleAfterSplit ? DOUBLE_AFTER_SPLIT : 0) | (rules.lateSurrender ? LATE_SURRENDER : 0)
+                | (rules.naturals ? NATURALS : 0) | (rules.dealerPeeks ? PEEK : 0);
+        buffer.putInt(rules.decks).putInt(flags).putInt(rules.maxHands)
+                .putInt((int) Math.round(rules.blackjackPayout * 10));
+    }
+
+    private static BlackjackRules decode(ByteBuffer buffer, int entry) {
+        int flags = buffer.getInt(entry + 4);
+        return new BlackjackRules(buffer.getInt(entry), (flags & HITS_SOFT_17) != 0, (flags & DOUBLE) != 0,
+                (flags & DOUBLE_AFTER_SPLIT) != 0, buffer.getInt(entry + 8), (flags & LATE_SURRENDER) != 0,
+                (flags & NATURALS) != 0, buffer.getInt(entry + 12) / 10.0, (flags & PEEK) != 0);
+    }
+
+    private static final class SolveTask extends RecursiveAction {
+        private final List<BlackjackRules> rules;
+        private final BlackjackSolver.Chart[] charts;
+        private final int from;
+        private final int to;
+
+        SolveTask(List<BlackjackRules> rules, BlackjackSolver.Chart[] charts, int from, int to) {
+            this.rules = rules;
+            this.charts = charts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SolveTask(rules, charts, from, mid), new SolveTask(rules, charts, mid, to));
+                return;
+            }
+            charts[from] = BlackjackSolver.solve(rules.get(from));
+        }
+    }
+
+    // Generate the table of hosted rule sets: java BlackjackTable [path]
+    public static void main(String[] args) throws IOException {
+        Path path = args.length > 0 ? Paths.get(args[0]) : DEFAULT_TABLE;
+        long start = System.nanoTime();
+        writeTable(path, HOSTED);
+        System.out.printf("Wrote %d charts to %s in %.1f s%n", HOSTED.size(), path, (System.nanoTime() - start) / 1e9);
+        start = System.nanoTime();
+        BlackjackTable mapped = open(path);
+        System.out.printf("Mapped and verified %d charts in %.1f ms%n", mapped.size(),
+                (System.nanoTime() - start) / 1e6);
+    }
+}
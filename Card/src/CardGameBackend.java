@@ -4,24 +4,91 @@ import java.util.*;
 
 // Main class for backend logic of Card Saga (Blackjack and Poker)
 public class CardGameBackend {
+    // Each table shuffles from its own split of this; -Dcardsaga.seed=<seed> replays a session
+    private final ShuffleSource shuffleSource = ShuffleSource.defaultSource();
+
     // Blackjack variables
-    private List<Card> blackjackDeck;
-    private List<Card> playerHand;
+    private final BlackjackRules blackjackRules = BlackjackRules.GAME;
+    private final Shoe blackjackShoe = new Shoe(1, 1.0, shuffleSource.split());
+    // Player's hands (split, doubled), reused every round
+    private final PlayerHands playerHands = new PlayerHands();
     private List<Card> dealerHand;
+    // Same state as CardSet bitmasks, used by the scoring hot path and the solvers;
+    // blackjackDeckSet holds the undealt cards
+    private long blackjackDeckSet;
+    private long dealerHandSet;
 
     // Poker variables
-    private List<Card> pokerDeck;
+    private final Shoe pokerShoe = new Shoe(1, 1.0, shuffleSource.split());
     private List<Card> playerPokerHand;
     private List<Card> computerPokerHand;
+    private long pokerDeckSet;
+    private long playerPokerSet;
+    private long computerPokerSet;
+    // Exact (enumerated) instead of sampled equity in the hand assessment, for audit reports
+    private boolean exactPokerEquity;
+
+    // Poker analysis caches, keyed by suit-canonical hand
+    private final LruCache<HandCanonicalizer.Key, String> handDetailsCache = new LruCache<>(4096);
+    private final LruCache<HandCanonicalizer.Key, EquityCalculator.Equity> sampledEquityCache = new LruCache<>(4096);
+    private final LruCache<HandCanonicalizer.Key, EquityCalculator.Equity> exactEquityCache = new LruCache<>(4096);
+
+    // Showdown seats of the two-handed games
+    private static final int PLAYER_SEAT = 0;
+    private static final int COMPUTER_SEAT = 1;
+
+    // Texas Hold'em variables
+    private final Shoe holdemShoe = new Shoe(1, 1.0, shuffleSource.split());
+    private List<Card> playerHoleCards;
+    private List<Card> computerHoleCards;
+    private List<Card> holdemBoard;
+
+    // Card class (custom ADT): one immutable instance per card, shared by every shoe, hand
+    // and cache. A card's code (see PokerEvaluator.cardCode) is its ordinal, 0 to 51.
+    static final class Card {
+        private static final String[] SUITS = {"♠", "♥", "♦", "♣"};
+        // Suit letters of the card image files, e.g. image/SA.png
+        private static final String SUIT_LETTERS = "SHDC";
+        private static final Card[] CARDS = allCards();
 
-    // Card class (custom ADT)
-    static class Card {
         private final String suit;
         private final int rank;
+        private final int code;
+        private final String name;
+        private final String assetKey;
+
+        private Card(int code) {
+            this.code = code;
+            this.suit = SUITS[code / 13];
+            this.rank = PokerEvaluator.cardRank(code % 13);
+            String rankStr;
+            switch (rank) {
+                case 1: rankStr = "A"; break;
+                case 11: rankStr = "J"; break;
+                case 12: rankStr = "Q"; break;
+                case 13: rankStr = "K"; break;
+                default: rankStr = String.valueOf(rank);
+            }
+            this.name = suit + rankStr;
+            this.assetKey = SUIT_LETTERS.charAt(code / 13) + rankStr;
+        }
+
+        private static Card[] allCards() {
+            Card[] cards = new Card[52];
+            for (int code = 0; code < cards.length; code++) {
+                cards[code] = new Card(code);
+            }
+            return cards;
+        }
+
+        // The card of a card code
+        public static Card of(int code) {
+            return CARDS[code];
+        }
 
-        public Card(String suit, int rank) {
-            this.suit = suit;
-            this.rank = rank;
+        // The card of a suit symbol and a rank (1 = Ace ... 13 = King)
+        public static Card of(String suit, int rank) {
+            return CARDS[PokerEvaluator.cardCode(PokerEvaluator.suitIndex(suit), rank)];
         }
 
         public String getSuit() {
@@ -32,77 +99,118 @@ public class CardGameBackend {
             return rank;
         }
 
+        // Evaluator card code (see PokerEvaluator.cardCode), also the card's ordinal
+        public int getCode() {
+            return code;
+        }
+
+        // Image file name without extension, e.g. "H10"
+        public String getAssetKey() {
+            return assetKey;
+        }
+
         @Override
         public String toString() {
-            String rankStr;
-            switch (rank) {
-                case 1: rankStr = "A"; break;
-                case 11: rankStr = "J"; break;
-                case 12: rankStr = "Q"; break;
-                case 13: rankStr = "K"; break;
-                default: rankStr = String.valueOf(rank);
-            }
-            return suit + rankStr;
+            return name;
         }
     }
 
-    // Initialize a standard 52-card deck
-    private List<Card> initDeck() {
-        List<Card> deck = new ArrayList<>();
-        String[] suits = {"♠", "♥", "♦", "♣"};
-        for (String suit : suits) {
-            for (int rank = 1; rank <= 13; rank++) {
-                deck.add(new Card(suit, rank));
-            }
-        }
-        return deck;
+    // Deal the next card of a shoe
+    private Card dealCard(Shoe shoe) {
+        return Card.of(shoe.deal());
     }
 
     // Blackjack: Initialize a new game
     private void initBlackjackGame() {
-        blackjackDeck = initDeck();
-        Collections.shuffle(blackjackDeck);
-        playerHand = new ArrayList<>();
+        blackjackShoe.shuffle();
+        playerHands.reset(PlayerHands.UNIT_BET);
         dealerHand = new ArrayList<>();
-        playerHand.add(blackjackDeck.remove(0));
-        dealerHand.add(blackjackDeck.remove(0));
-        playerHand.add(blackjackDeck.remove(0));
-        dealerHand.add(blackjackDeck.remove(0));
-        // Note: UI-related button enabling (hitButton, standButton) omitted
+        blackjackDeckSet = CardSet.FULL_DECK;
+        dealerHandSet = CardSet.EMPTY;
+        playerHands.add(dealPlayerCard());
+        dealerHandSet = dealBlackjackCard(dealerHand, dealerHandSet);
+        playerHands.add(dealPlayerCard());
+        dealerHandSet = dealBlackjackCard(dealerHand, dealerHandSet);
+        advanceBlackjackHands();
+    }
+
+    // Blackjack: Move the top card of the deck into a hand and return the hand's new card set
+    private long dealBlackjackCard(List<Card> hand, long handSet) {
+        Card card = dealCard(blackjackShoe);
+        hand.add(card);
+        blackjackDeckSet = CardSet.remove(blackjackDeckSet, card.getCode());
+        return CardSet.add(handSet, card.getCode());
+    }
+
+    // Blackjack: Take the top card of the deck for the player; returns its code
+    private int dealPlayerCard() {
+        int code = blackjackShoe.deal();
+        blackjackDeckSet = CardSet.remove(blackjackDeckSet, code);
+        return code;
+    }
+
+    // Blackjack: Deal split hands their second card; the dealer plays once every hand is finished
+    private void advanceBlackjackHands() {
+        while (playerHands.needsCard()) {
+            playerHands.add(dealPlayerCard());
+        }
         // updateBlackjackUI() omitted (UI method)
+        // Note: UI-related button enabling (hit, stand, double if canDouble, split if canSplit) omitted
+        if (playerHands.done()) {
+            finishBlackjackRound();
+        }
     }
 
     // Blackjack: Player draws a card
     private void blackjackHit() {
-        playerHand.add(blackjackDeck.remove(0));
-        // updateBlackjackUI() omitted (UI method)
-        int playerScore = calculateBlackjackScore(playerHand);
-        if (playerScore > 21) {
-            // Note: UI-related button disabling (hitButton, standButton) omitted
-            // JOptionPane.showMessageDialog(this, "Your hand is over 21. Dealer wins!", "Result", JOptionPane.INFORMATION_MESSAGE) omitted (UI)
-        } else if (playerScore == 21) {
-            blackjackStand();
-        }
+        playerHands.add(dealPlayerCard());
+        advanceBlackjackHands();
     }
 
-    // Blackjack: Player ends turn, dealer plays
+    // Blackjack: Player ends the active hand
     private void blackjackStand() {
-        // Note: UI-related button disabling (hitButton, standButton) omitted
-        int dealerScore = calculateBlackjackScore(dealerHand);
-        while (dealerScore < 17) {
-            dealerHand.add(blackjackDeck.remove(0));
-            dealerScore = calculateBlackjackScore(dealerHand);
+        playerHands.stand();
+        advanceBlackjackHands();
+    }
+
+    // Blackjack: Player doubles the bet and takes one last card
+    private void blackjackDouble() {
+        playerHands.doubleDown(dealPlayerCard());
+        advanceBlackjackHands();
+    }
+
+    // Blackjack: Player splits a pair into two hands
+    private void blackjackSplit() {
+        playerHands.split();
+        advanceBlackjackHands();
+    }
+
+    // Blackjack: Dealer plays if any hand still stands, then every hand is settled
+    private void finishBlackjackRound() {
+        // Note: UI-related button disabling (hit, stand, double, split) omitted
+        if (!playerHands.anyStanding()) {
+            // JOptionPane.showMessageDialog(this, "Your hand is over 21. Dealer wins!", "Result", JOptionPane.INFORMATION_MESSAGE) omitted (UI)
+            return;
+        }
+        int dealerScore = calculateBlackjackScore(dealerHandSet);
+        while (blackjackRules.dealerHits(dealerScore, dealerScore != blackjackHardTotal(dealerHand))) {
+            dealerHandSet = dealBlackjackCard(dealerHand, dealerHandSet);
+            dealerScore = calculateBlackjackScore(dealerHandSet);
         }
         // updateBlackjackUI() omitted (UI method)
-        int playerScore = calculateBlackjackScore(playerHand);
-        if (dealerScore > 21) {
-            // JOptionPane.showMessageDialog(this, "Dealer's hand is over 21 Score. You win!", "Result", JOptionPane.INFORMATION_MESSAGE) omitted (UI)
-        } else if (dealerScore > playerScore) {
-            // JOptionPane.showMessageDialog(this, "Dealer's hand is " + dealerScore + " Score. Dealer wins!", "Result", JOptionPane.INFORMATION_MESSAGE) omitted (UI)
-        } else if (playerScore > dealerScore) {
-            // JOptionPane.showMessageDialog(this, "Your hand is " + playerScore + " Score. You win!", "Result", JOptionPane.INFORMATION_MESSAGE) omitted (UI)
-        } else {
-            // JOptionPane.showMessageDialog(this, "Draw by " + playerScore + " Score!", "Result", JOptionPane.INFORMATION_MESSAGE) omitted (UI)
+        for (int hand = 0; hand < playerHands.hands(); hand++) {
+            int playerScore = playerHands.total(hand);
+            if (playerHands.status(hand) == PlayerHands.Status.BUSTED) {
+                // "Your hand is over 21. Dealer wins!" omitted (UI)
+            } else if (dealerScore > 21) {
+                // JOptionPane.showMessageDialog(this, "Dealer's hand is over 21 Score. You win!", "Result", JOptionPane.INFORMATION_MESSAGE) omitted (UI)
+            } else if (dealerScore > playerScore) {
+                // JOptionPane.showMessageDialog(this, "Dealer's hand is " + dealerScore + " Score. Dealer wins!", "Result", JOptionPane.INFORMATION_MESSAGE) omitted (UI)
+            } else if (playerScore > dealerScore) {
+                // JOptionPane.showMessageDialog(this, "Your hand is " + playerScore + " Score. You win!", "Result", JOptionPane.INFORMATION_MESSAGE) omitted (UI)
+            } else {
+                // JOptionPane.showMessageDialog(this, "Draw by " + playerScore + " Score!", "Result", JOptionPane.INFORMATION_MESSAGE) omitted (UI)
+            }
         }
     }
 
@@ -127,12 +235,62 @@ public class CardGameBackend {
         return score;
     }
 
+    // Blackjack: Calculate hand score from a card set (rank counts by popcount)
+    private int calculateBlackjackScore(long hand) {
+        return BatchEvaluator.blackjackScore(hand);
+    }
+
+    // Blackjack: Hand total with every Ace counted as 1; a score above it is soft
+    private int blackjackHardTotal(List<Card> hand) {
+        int hard = 0;
+        for (Card card : hand) {
+            hard += DeckComposition.rankOfCardRank(card.getRank());
+        }
+        return hard;
+    }
+
+    // Blackjack: Basic-strategy play for the active hand against the dealer's face-up card,
+    // from the chart of the table's rules
+    private BlackjackSolver.Action recommendedBlackjackAction() {
+        if (playerHands.done()) {
+            return BlackjackSolver.Action.STAND;
+        }
+        int hand = playerHands.active();
+        int upcard = DeckComposition.rankOf(dealerHand.get(1).getCode());
+        return BlackjackSolver.chart(blackjackRules).action(playerHands.hard(hand), playerHands.soft(hand),
+                playerHands.pairRank(hand), upcard, playerHands.canDouble(blackjackRules),
+                playerHands.canSplit(blackjackRules), playerHands.canSurrender(blackjackRules));
+    }
+
+    // Blackjack: Optimal play for the active hand given exactly which cards are still unseen
+    // (composition-dependent, unlike the chart)
+    private BlackjackSolver.Decision optimalBlackjackDecision() {
+        Card upcard = dealerHand.get(1);
+        long unseen = unseenBlackjackCards();
+        return BlackjackSolver.decide(blackjackRules, DeckComposition.ofCards(unseen), playerHands,
+                DeckComposition.rankOf(upcard.getCode()));
+    }
+
+    // Blackjack: Cards the player has not seen: the undealt deck plus the dealer's hole card
+    private long unseenBlackjackCards() {
+        return CardSet.add(blackjackDeckSet, dealerHand.get(0).getCode());
+    }
+
+    // Blackjack: Dealer's final-total odds (17..21, bust) from the player's point of view:
+    // the face-up card is known, the hole card is as unseen as the rest of the deck
+    private double[] dealerOutcomeOdds() {
+        Card upcard = dealerHand.get(1);
+        long unseen = unseenBlackjackCards();
+        return DealerOdds.forCurrentThread().distribution(DeckComposition.ofCards(unseen),
+                DeckComposition.rankOf(upcard.getCode()), false);
+    }
+
     // Poker: Initialize a new game
     private void initPokerGame() {
-        pokerDeck = initDeck();
-        Collections.shuffle(pokerDeck);
+        pokerShoe.shuffle();
         playerPokerHand = new ArrayList<>();
         computerPokerHand = new ArrayList<>();
+        pokerDeckSet = CardSet.FULL_DECK;
         // Note: UI-related panel clearing and label updates omitted
         // drawButton, evaluateButton, assessHandsButton enabling/disabling omitted (UI)
         // playerPokerCardsPanel, computerPokerCardsPanel updates omitted (UI)
@@ -142,33 +300,67 @@ public class CardGameBackend {
     private void pokerDraw() {
         playerPokerHand.clear();
         computerPokerHand.clear();
+        playerPokerSet = CardSet.EMPTY;
+        computerPokerSet = CardSet.EMPTY;
         for (int i = 0; i < 5; i++) {
-            playerPokerHand.add(pokerDeck.remove(0));
-            computerPokerHand.add(pokerDeck.remove(0));
-        }
+            Card playerCard = dealCard(pokerShoe);
+            Card computerCard = dealCard(pokerShoe);
+            playerPokerHand.add(playerCard);
+            computerPokerHand.add(computerCard);
+            playerPokerSet = CardSet.add(playerPokerSet, playerCard.getCode());
+            computerPokerSet = CardSet.add(computerPokerSet, computerCard.getCode());
+        }
+        pokerDeckSet = CardSet.minus(pokerDeckSet, CardSet.union(playerPokerSet, computerPokerSet));
         // updatePokerUI(false) omitted (UI method)
         // Note: UI-related button enabling/disabling (drawButton, evaluateButton, assessHandsButton) omitted
     }
 
+    // Poker: Draw phase, replace the player's chosen cards and let the computer draw by exact EV
+    private void pokerExchange(boolean[] playerDiscards) {
+        for (int i = 0; i < 5; i++) {
+            if (playerDiscards[i]) {
+                playerPokerHand.set(i, dealCard(pokerShoe));
+            }
+        }
+        int[] computerCodes = new int[5];
+        for (int i = 0; i < 5; i++) {
+            computerCodes[i] = computerPokerHand.get(i).getCode();
+        }
+        int computerHold = DrawSolver.bestHold(computerCodes);
+        for (int i = 0; i < 5; i++) {
+            if ((computerHold & (1 << i)) == 0) {
+                computerPokerHand.set(i, dealCard(pokerShoe));
+            }
+        }
+        playerPokerSet = pokerCardSet(playerPokerHand);
+        computerPokerSet = pokerCardSet(computerPokerHand);
+        pokerDeckSet = CardSet.minus(pokerDeckSet, CardSet.union(playerPokerSet, computerPokerSet));
+        // updatePokerUI(false) omitted (UI method)
+        // Note: UI-related button disabling (exchangeButton) omitted
+    }
+
     // Poker: Evaluate and compare hands
     private void pokerEvaluate() {
         // updatePokerUI(true) omitted (UI method)
-        String playerHandType = evaluatePokerHand(playerPokerHand);
-        String computerHandType = evaluatePokerHand(computerPokerHand);
-        int playerRank = getPokerHandRank(playerHandType);
-        int computerRank = getPokerHandRank(computerHandType);
-        if (playerRank > computerRank) {
-            // pokerResultLabel.setText("You win with " + playerHandType + " vs " + computerHandType) omitted (UI)
-        } else if (computerRank > playerRank) {
-            // pokerResultLabel.setText("Computer wins with " + computerHandType + " vs " + playerHandType) omitted (UI)
-        } else {
-            int result = compareHighCards(playerPokerHand, computerPokerHand, playerHandType);
-            if (result > 0) {
+        Showdown.Result showdown = Showdown.rank(new long[] {playerPokerSet, computerPokerSet});
+        int playerStrength = showdown.strength(PLAYER_SEAT);
+        int computerStrength = showdown.strength(COMPUTER_SEAT);
+        String playerHandType = PokerEvaluator.handName(playerStrength);
+        String computerHandType = PokerEvaluator.handName(computerStrength);
+        boolean sameCategory = getPokerHandRank(playerStrength) == getPokerHandRank(computerStrength);
+        if (showdown.isSplit()) {
+            // pokerResultLabel.setText("Draw! Both have equal " + playerHandType) omitted (UI)
+        } else if (showdown.seatAt(0) == PLAYER_SEAT) {
+            if (sameCategory) {
                 // pokerResultLabel.setText("You win with higher " + playerHandType) omitted (UI)
-            } else if (result < 0) {
+            } else {
+                // pokerResultLabel.setText("You win with " + playerHandType + " vs " + computerHandType) omitted (UI)
+            }
+        } else {
+            if (sameCategory) {
                 // pokerResultLabel.setText("Computer wins with higher " + computerHandType) omitted (UI)
             } else {
-                // pokerResultLabel.setText("Draw! Both have equal " + playerHandType) omitted (UI)
+                // pokerResultLabel.setText("Computer wins with " + computerHandType + " vs " + playerHandType) omitted (UI)
             }
         }
         // Note: UI-related button disabling (evaluateButton) omitted
@@ -177,8 +369,11 @@ public class CardGameBackend {
     // Poker: Detailed hand assessment
     private void assessPokerHands() {
         // updatePokerUI(true) omitted (UI method)
-        String playerHandType = evaluatePokerHand(playerPokerHand);
-        String computerHandType = evaluatePokerHand(computerPokerHand);
+        Showdown.Result showdown = Showdown.rank(new long[] {playerPokerSet, computerPokerSet});
+        int playerStrength = showdown.strength(PLAYER_SEAT);
+        int computerStrength = showdown.strength(COMPUTER_SEAT);
+        String playerHandType = PokerEvaluator.handName(playerStrength);
+        String computerHandType = PokerEvaluator.handName(computerStrength);
         StringBuilder assessment = new StringBuilder();
         assessment.append("Hand Assessment:\n\n");
         assessment.append("Your Hand: ").append(playerHandType).append("\n");
@@ -197,27 +392,85 @@ public class CardGameBackend {
         assessment.append("\n");
         assessment.append(getHandDetails(computerPokerHand, computerHandType));
         assessment.append("\n\n");
-        int playerRank = getPokerHandRank(playerHandType);
-        int computerRank = getPokerHandRank(computerHandType);
-        if (playerRank > computerRank) {
-            assessment.append("Your hand is stronger than the computer's hand.");
-        } else if (computerRank > playerRank) {
-            assessment.append("The computer's hand is stronger than your hand.");
+        boolean sameCategory = getPokerHandRank(playerStrength) == getPokerHandRank(computerStrength);
+        if (showdown.isSplit()) {
+            assessment.append("Both hands are of equal strength.");
+        } else if (showdown.seatAt(0) == PLAYER_SEAT) {
+            assessment.append(sameCategory ? "Your hand is stronger due to higher cards."
+                    : "Your hand is stronger than the computer's hand.");
         } else {
-            int result = compareHighCards(playerPokerHand, computerPokerHand, playerHandType);
-            if (result > 0) {
-                assessment.append("Your hand is stronger due to higher cards.");
-            } else if (result < 0) {
-                assessment.append("The computer's hand is stronger due to higher cards.");
-            } else {
-                assessment.append("Both hands are of equal strength.");
-            }
+            assessment.append(sameCategory ? "The computer's hand is stronger due to higher cards."
+                    : "The computer's hand is stronger than your hand.");
         }
+        EquityCalculator.Equity equity = pokerEquity(playerPokerSet);
+        assessment.append("\n\nYour chances against an unknown hand:\n").append(equity);
         // Note: UI-related dialog display (JTextArea, JScrollPane, JOptionPane) omitted
     }
 
-    // Poker: Generate detailed hand description
+    // Poker: Showdown equity of a hand against an unknown opponent, exact or sampled
+    private EquityCalculator.Equity pokerEquity(long hand) {
+        HandCanonicalizer.Key key = HandCanonicalizer.canonical(hand);
+        if (exactPokerEquity) {
+            return exactEquityCache.get(key, k -> EquityCalculator.exact(k.hand, k.dead));
+        }
+        return sampledEquityCache.get(key, k -> EquityCalculator.monteCarlo(k.hand, k.dead,
+                EquityCalculator.ASSESSMENT_TARGET_ERROR, EquityCalculator.ASSESSMENT_MAX_TRIALS,
+                EquityCalculator.ASSESSMENT_TIME_LIMIT_MILLIS, System.nanoTime()));
+    }
+
+    // Poker: Hit/miss counters of the analysis caches, for sizing them
+    private String analysisCacheStats() {
+        return "Hand details: " + handDetailsCache + "\n"
+                + "Sampled equity: " + sampledEquityCache + "\n"
+                + "Exact equity: " + exactEquityCache;
+    }
+
+    // Hold'em: Initialize a new game and deal two hole cards each plus the five-card board
+    private void initHoldemGame() {
+        holdemShoe.shuffle();
+        playerHoleCards = new ArrayList<>();
+        computerHoleCards = new ArrayList<>();
+        holdemBoard = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            playerHoleCards.add(dealCard(holdemShoe));
+            computerHoleCards.add(dealCard(holdemShoe));
+        }
+        for (int i = 0; i < 5; i++) {
+            holdemBoard.add(dealCard(holdemShoe));
+        }
+        // Note: UI-related panel updates omitted
+    }
+
+    // Hold'em: Compare best five-card hands at showdown
+    private void holdemEvaluate() {
+        Showdown.Result showdown = Showdown.rankStrengths(new int[] {
+                holdemStrength(playerHoleCards, holdemBoard), holdemStrength(computerHoleCards, holdemBoard)});
+        String playerHandType = PokerEvaluator.handName(showdown.strength(PLAYER_SEAT));
+        String computerHandType = PokerEvaluator.handName(showdown.strength(COMPUTER_SEAT));
+        if (showdown.isSplit()) {
+            // pokerResultLabel.setText("Split pot! Both have equal " + playerHandType) omitted (UI)
+        } else if (showdown.seatAt(0) == PLAYER_SEAT) {
+            // pokerResultLabel.setText("You win with " + playerHandType + " vs " + computerHandType) omitted (UI)
+        } else {
+            // pokerResultLabel.setText("Computer wins with " + computerHandType + " vs " + playerHandType) omitted (UI)
+        }
+    }
+
+    // Hold'em: Best-five strength of two hole cards plus five board cards
+    private int holdemStrength(List<Card> holeCards, List<Card> board) {
+        return PokerEvaluator.evaluate7(holeCards.get(0).getCode(), holeCards.get(1).getCode(),
+                board.get(0).getCode(), board.get(1).getCode(), board.get(2).getCode(),
+                board.get(3).getCode(), board.get(4).getCode());
+    }
+
+    // Poker: Detailed hand description, cached by suit-canonical hand
     private String getHandDetails(List<Card> hand, String handType) {
+        return handDetailsCache.get(HandCanonicalizer.canonical(pokerCardSet(hand)),
+                key -> describeHand(hand, handType));
+    }
+
+    // Poker: Generate detailed hand description (uncached)
+    private String describeHand(List<Card> hand, String handType) {
         StringBuilder details = new StringBuilder();
         List<Card> sortedHand = new ArrayList<>(hand);
         Collections.sort(sortedHand, (c1, c2) -> {
@@ -301,33 +554,6 @@ public class CardGameBackend {
         return details.toString();
     }
 
-    // Poker: Compare hands for tie-breaking
-    private int compareHighCards(List<Card> playerHand, List<Card> computerHand, String handType) {
-        Collections.sort(playerHand, (c1, c2) -> c2.getRank() - c1.getRank());
-        Collections.sort(computerHand, (c1, c2) -> c2.getRank() - c1.getRank());
-        if (handType.equals("Pair") || handType.equals("Two Pairs") ||
-                handType.equals("Three of A Kind") || handType.equals("Full House") ||
-                handType.equals("Four of A Kind")) {
-            Map<Integer, Integer> playerRankFreq = getRankFrequencies(playerHand);
-            Map<Integer, Integer> computerRankFreq = getRankFrequencies(computerHand);
-            if (handType.equals("Pair")) {
-                int playerPairRank = getPairRank(playerRankFreq);
-                int computerPairRank = getPairRank(computerRankFreq);
-                if (playerPairRank != computerPairRank) {
-                    return playerPairRank - computerPairRank;
-                }
-            }
-        }
-        for (int i = 0; i < playerHand.size(); i++) {
-            int playerRank = convertAceRank(playerHand.get(i).getRank());
-            int computerRank = convertAceRank(computerHand.get(i).getRank());
-            if (playerRank != computerRank) {
-                return playerRank - computerRank;
-            }
-        }
-        return 0;
-    }
-
     // Poker: Convert Ace rank for high-card comparisons
     private int convertAceRank(int rank) {
         return rank == 1 ? 14 : rank;
@@ -343,143 +569,29 @@ public class CardGameBackend {
         return frequencyMap;
     }
 
-    // Poker: Get rank of a pair
-    private int getPairRank(Map<Integer, Integer> rankFreq) {
-        for (Map.Entry<Integer, Integer> entry : rankFreq.entrySet()) {
-            if (entry.getValue() == 2) {
-                return entry.getKey();
-            }
-        }
-        return 0;
-    }
-
     // Poker: Evaluate hand type
     private String evaluatePokerHand(List<Card> hand) {
-        Collections.sort(hand, (c1, c2) -> {
-            int rank1 = c1.getRank() == 1 ? 14 : c1.getRank();
-            int rank2 = c2.getRank() == 1 ? 14 : c2.getRank();
-            return rank1 - rank2;
-        });
-        boolean isFlush = isFlush(hand);
-        boolean isStraight = isStraight(hand);
-        if (isFlush && isStraight) {
-            if (hand.get(0).getRank() == 10 && hand.get(1).getRank() == 11 &&
-                    hand.get(2).getRank() == 12 && hand.get(3).getRank() == 13 &&
-                    hand.get(4).getRank() == 1) {
-                return "Royal Flush";
-            }
-            return "Straight Flush";
-        }
-        Map<Integer, Integer> rankCounts = new HashMap<>();
-        for (Card card : hand) {
-            int rank = card.getRank() == 1 ? 14 : card.getRank();
-            rankCounts.put(rank, rankCounts.getOrDefault(rank, 0) + 1);
-        }
-        if (hasFourOfAKind(rankCounts)) {
-            return "Four of A Kind";
-        }
-        if (hasFullHouse(rankCounts)) {
-            return "Full House";
-        }
-        if (isFlush) {
-            return "Flush";
-        }
-        if (isStraight) {
-            return "Straight";
-        }
-        if (hasThreeOfAKind(rankCounts)) {
-            return "Three of A Kind";
-        }
-        if (hasTwoPairs(rankCounts)) {
-            return "Two Pairs";
-        }
-        if (hasPair(rankCounts)) {
-            return "Pair";
-        }
-        return "High Card";
+        return PokerEvaluator.handName(pokerStrength(hand));
     }
 
-    // Poker: Check for Flush
-    private boolean isFlush(List<Card> hand) {
-        String suit = hand.get(0).getSuit();
+    // Poker: CardSet of a hand
+    private long pokerCardSet(List<Card> hand) {
+        long set = CardSet.EMPTY;
         for (Card card : hand) {
-            if (!card.getSuit().equals(suit)) {
-                return false;
-            }
+            set = CardSet.add(set, card.getCode());
         }
-        return true;
+        return set;
     }
 
-    // Poker: Check for Straight
-    private boolean isStraight(List<Card> hand) {
-        List<Card> sortedHand = new ArrayList<>(hand);
-        Collections.sort(sortedHand, (c1, c2) -> {
-            int rank1 = c1.getRank() == 1 ? 14 : c1.getRank();
-            int rank2 = c2.getRank() == 1 ? 14 : c2.getRank();
-            return rank1 - rank2;
-        });
-        if (sortedHand.get(0).getRank() == 2 &&
-                sortedHand.get(1).getRank() == 3 &&
-                sortedHand.get(2).getRank() == 4 &&
-                sortedHand.get(3).getRank() == 5 &&
-                sortedHand.get(4).getRank() == 1) {
-            return true;
-        }
-        for (int i = 0; i < sortedHand.size() - 1; i++) {
-            int currentRank = sortedHand.get(i).getRank() == 1 ? 14 : sortedHand.get(i).getRank();
-            int nextRank = sortedHand.get(i+1).getRank() == 1 ? 14 : sortedHand.get(i+1).getRank();
-            if (nextRank - currentRank != 1) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    // Poker: Check for Four of a Kind
-    private boolean hasFourOfAKind(Map<Integer, Integer> rankCounts) {
-        return rankCounts.containsValue(4);
-    }
-
-    // Poker: Check for Full House
-    private boolean hasFullHouse(Map<Integer, Integer> rankCounts) {
-        return rankCounts.containsValue(3) && rankCounts.containsValue(2);
-    }
-
-    // Poker: Check for Three of a Kind
-    private boolean hasThreeOfAKind(Map<Integer, Integer> rankCounts) {
-        return rankCounts.containsValue(3);
-    }
-
-    // Poker: Check for Two Pairs
-    private boolean hasTwoPairs(Map<Integer, Integer> rankCounts) {
-        int pairCount = 0;
-        for (int count : rankCounts.values()) {
-            if (count == 2) {
-                pairCount++;
-            }
-        }
-        return pairCount == 2;
-    }
-
-    // Poker: Check for Pair
-    private boolean hasPair(Map<Integer, Integer> rankCounts) {
-        return rankCounts.containsValue(2);
+    // Poker: Packed hand strength (category and kickers) from the lookup tables
+    private int pokerStrength(List<Card> hand) {
+        return PokerEvaluator.evaluate(hand.get(0).getCode(), hand.get(1).getCode(),
+                hand.get(2).getCode(), hand.get(3).getCode(), hand.get(4).getCode());
     }
 
     // Poker: Get numerical rank of hand type
-    private int getPokerHandRank(String handType) {
-        switch (handType) {
-            case "Royal Flush": return 10;
-            case "Straight Flush": return 9;
-            case "Four of A Kind": return 8;
-            case "Full House": return 7;
-            case "Flush": return 6;
-            case "Straight": return 5;
-            case "Three of A Kind": return 4;
-            case "Two Pairs": return 3;
-            case "Pair": return 2;
-            default: return 1; // High Card
-        }
+    private int getPokerHandRank(int strength) {
+        return PokerEvaluator.category(strength);
     }
 
     // Poker: Get rank name for display
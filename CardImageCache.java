@@ -0,0 +1,280 @@
+// CardImageCache.java
+// Card images decoded and scaled once per (card, width, height), kept under a byte budget
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import javax.imageio.ImageIO;
+
+// Rendering a hand used to decode each card's PNG and scale it with getScaledInstance on
+// every UI update. Here a slot (a card code 0 to 51, or BACK) at a size is decoded and
+// scaled once into an image compatible with the screen, so drawing it later is a plain
+// blit. Each size gets a table of 53 entries indexed by slot, so a lookup is two array
+// reads with no key to build or box. Once the images' pixels pass the byte budget the
+// least recently used go first. Entries are soft references as well, so the collector can
+// take any image back when the heap runs short; a reclaimed image comes off the budget and
+// is decoded again on its next use. A slot whose resource is missing is remembered as
+// missing and not looked up again.
+//
+// Scaling halves the image with bilinear filtering until it is within twice the target,
+// then draws it at the target size, which keeps downscaled card faces smooth.
+public final class CardImageCache {
+    // Slot of the card back; cards use their card code
+    public static final int BACK = 52;
+    private static final int SLOTS = BACK + 1;
+
+    // Stands in for a slot whose image is missing or unreadable
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    private final IntFunction<String> resources;
+    private final long maxBytes;
+    // One table per card size, in the order the sizes were first asked for
+    private SizeTable[] tables = new SizeTable[0];
+    // Entries whose image the collector has reclaimed
+    private final ReferenceQueue<BufferedImage> reclaimedImages = new ReferenceQueue<>();
+    private int size;
+    private long bytes;
+    private long clock;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long reclaimed;
+
+    // resources maps a slot to its class-path resource, e.g. "image/SA.png"
+    public CardImageCache(IntFunction<String> resources, long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Byte budget must be positive: " + maxBytes);
+        }
+        this.resources = resources;
+        this.maxBytes = maxBytes;
+    }
+
+    // Scaled image of a slot, or null when its resource is missing
+    public synchronized BufferedImage get(int slot, int width, int height) {
+        if (slot < 0 || slot > BACK || width < 1 || height < 1) {
+            throw new IllegalArgumentException("No card image " + slot + " at " + width + "x" + height);
+        }
+        forgetReclaimed();
+        SizeTable table = table(width, height);
+        Entry entry = table.entries[slot];
+        BufferedImage image = entry != null ? entry.get() : null;
+        if (image != null) {
+            hits++;
+        } else {
+            misses++;
+            if (entry != null) {
+                // Cleared but not yet queued; the queued reference is skipped later
+                remove(entry);
+                reclaimed++;
+            }
+            image = load(resources.apply(slot), width, height);
+            entry = new Entry(image, table, slot, reclaimedImages);
+            table.entries[slot] = entry;
+            size++;
+            bytes += entry.bytes;
+        }
+        entry.lastUse = ++clock;
+        evict();
+        return image == MISSING ? null : image;
+    }
+
+    // Table of a size, added on first use
+    private SizeTable table(int width, int height) {
+        for (SizeTable table : tables) {
+            if (table.width == width && table.height == height) {
+                return table;
+            }
+        }
+        SizeTable table = new SizeTable(width, height);
+        tables = Arrays.copyOf(tables, tables.length + 1);
+        tables[tables.length - 1] = table;
+        return table;
+    }
+
+    // Drop the least recently used images until the budget holds; eviction only runs when
+    // a new image goes in, so a scan over every entry is cheap next to decoding it
+    private void evict() {
+        while (bytes > maxBytes && size > 1) {
+            Entry eldest = null;
+            for (SizeTable table : tables) {
+                for (Entry entry : table.entries) {
+                    if (entry != null && (eldest == null || entry.lastUse < eldest.lastUse)) {
+                        eldest = entry;
+                    }
+                }
+            }
+            remove(eldest);
+            eldest.clear();
+            evictions++;
+        }
+    }
+
+    // Take the entries the collector has cleared off the budget
+    private void forgetReclaimed() {
+        Reference<? extends BufferedImage> cleared;
+        while ((cleared = reclaimedImages.poll()) != null) {
+            Entry entry = (Entry) cleared;
+            if (entry.table.entries[entry.slot] == entry) {
+                remove(entry);
+                reclaimed++;
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        entry.table.entries[entry.slot] = null;
+        size--;
+        bytes -= entry.bytes;
+    }
+
+    private static BufferedImage load(String resource, int width, int height) {
+        URL url = CardImageCache.class.getResource(resource);
+        if (url == null) {
+            System.err.println("Card image not found: " + resource);
+            return MISSING;
+        }
+        BufferedImage source;
+        try {
+            source = ImageIO.read(url);
+        } catch (IOException e) {
+            source = null;
+        }
+        if (source == null) {
+            System.err.println("Card image not readable: " + resource);
+            return MISSING;
+        }
+        return scale(source, width, height);
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        while (image.getWidth() >= 2 * width && image.getHeight() >= 2 * height) {
+            image = draw(image, image.getWidth() / 2, image.getHeight() / 2, false);
+        }
+        return draw(image, width, height, true);
+    }
+
+    private static BufferedImage draw(BufferedImage image, int width, int height, boolean display) {
+        BufferedImage scaled = display ? compatibleImage(width, height)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
+
+    // Image in the screen's native translucent format, so blitting it needs no conversion
+    private static BufferedImage compatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    // Pixel bytes of an image, at four bytes a pixel
+    private static long footprint(BufferedImage image) {
+        return 4L * image.getWidth() * image.getHeight();
+    }
+
+    public synchronized int size() {
+        forgetReclaimed();
+        return size;
+    }
+
+    // Pixel bytes held by the cached images
+    public synchronized long bytes() {
+        forgetReclaimed();
+        return bytes;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized void clear() {
+        for (SizeTable table : tables) {
+            Arrays.fill(table.entries, null);
+        }
+        size = 0;
+        bytes = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        forgetReclaimed();
+        long total = hits + misses;
+        return String.format("%d images, %d/%d KB, %d hits, %d misses (%.1f%% hit rate), %d evictions, %d reclaimed",
+                size, bytes / 1024, maxBytes / 1024, hits, misses,
+                total == 0 ? 0 : 100.0 * hits / total, evictions, reclaimed);
+    }
+
+    // Cached images of one size, indexed by slot
+    private static final class SizeTable {
+        final int width;
+        final int height;
+        final Entry[] entries = new Entry[SLOTS];
+
+        SizeTable(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    // One cached image, softly held; remembers its place so a reclaimed one can be removed
+    private static final class Entry extends SoftReference<BufferedImage> {
+        final SizeTable table;
+        final int slot;
+        final long bytes;
+        long lastUse;
+
+        Entry(BufferedImage image, SizeTable table, int slot, ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.table = table;
+            this.slot = slot;
+            this.bytes = footprint(image);
+        }
+    }
+
+    // Load every card and the back and report the footprint; the images are named by a
+    // pattern over a suit letter (card code / 13) and a rank label (card code % 13):
+    // java CardImageCache [pattern back suits ranks [width height]]
+    // e.g. java CardImageCache image/%c%s.png image/poker.png SHDC 2,3,4,5,6,7,8,9,10,J,Q,K,A 80 112
+    public static void main(String[] args) {
+        String pattern = args.length > 3 ? args[0] : "image/%c%s.png";
+        String back = args.length > 3 ? args[1] : "image/poker.png";
+        String suits = args.length > 3 ? args[2] : "SHDC";
+        String[] ranks = (args.length > 3 ? args[3] : "2,3,4,5,6,7,8,9,10,J,Q,K,A").split(",");
+        int width = args.length > 5 ? Integer.parseInt(args[4]) : 80;
+        int height = args.length > 5 ? Integer.parseInt(args[5]) : 112;
+        if (suits.length() != 4 || ranks.length != 13) {
+            throw new IllegalArgumentException("Expected 4 suit letters and 13 rank labels, got " + suits
+                    + " and " + ranks.length);
+        }
+        CardImageCache cache = new CardImageCache(slot -> slot == BACK ? back
+                : String.format(pattern, suits.charAt(slot / 13), ranks[slot % 13]), 8L << 20);
+        long start = System.nanoTime();
+        for (int slot = 0; slot <= BACK; slot++) {
+            cache.get(slot, width, height);
+        }
+        System.out.printf("Decoded and scaled in %.1f ms: %s%n", (System.nanoTime() - start) / 1e6, cache);
+        start = System.nanoTime();
+        for (int round = 0; round < 1000; round++) {
+            for (int slot = 0; slot <= BACK; slot++) {
+                cache.get(slot, width, height);
+            }
+        }
+        System.out.printf("Cached lookup %.0f ns: %s%n", (System.nanoTime() - start) / 53e3, cache);
+    }
+}
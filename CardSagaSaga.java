@@ -2,10 +2,12 @@ import java.awt.*;
 import java.awt.event.*;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
 
 public class CardSagaSaga extends JFrame implements ActionListener {
@@ -26,8 +28,11 @@ public class CardSagaSaga extends JFrame implements ActionListener {
     private JLabel dealerScoreLabel;
     private JButton hitButton;
     private JButton standButton;
+    private JButton doubleButton;
+    private JButton splitButton;
     private JButton blackjackBackButton;
     private JButton blackjackNewGameButton;
+    private JLabel blackjackOddsLabel;
 
     // Poker UI components
     private JPanel pokerPanel;
@@ -35,27 +40,89 @@ public class CardSagaSaga extends JFrame implements ActionListener {
     private JPanel computerPokerCardsPanel;
     private JLabel pokerResultLabel;
     private JButton drawButton;
+    private JButton exchangeButton;
     private JButton evaluateButton;
     private JButton assessHandsButton;
     private JButton pokerBackButton;
     private JButton pokerNewGameBUtton;
 
     // Backend variables
-    private List<Card> blackjackDeck;
-    private List<Card> playerHand;
+    // Each table shuffles from its own split of this; -Dcardsaga.seed=<seed> replays a session
+    private final ShuffleSource shuffleSource = ShuffleSource.defaultSource();
+    private final BlackjackRules blackjackRules = BlackjackRules.GAME;
+    private final Shoe blackjackShoe = new Shoe(1, 1.0, shuffleSource.split());
+    // Player's hands, reused every round
+    private final PlayerHands playerHands = new PlayerHands();
     private List<Card> dealerHand;
-    private List<Card> pokerDeck;
+    // Blackjack odds overlay: at most one worker at a time, which owns the dealer engine;
+    // a query arriving meanwhile replaces any older pending one
+    private final DealerOdds blackjackDealerOdds =
+            new DealerOdds(false, blackjackRules.dealerHitsSoft17, DealerOdds.DEFAULT_MAX_ENTRIES);
+    private boolean blackjackOddsRunning;
+    private BlackjackOddsQuery pendingBlackjackOdds;
+    private final Shoe pokerShoe = new Shoe(1, 1.0, shuffleSource.split());
+    // Showdown seats of the two-handed game
+    private static final int PLAYER_SEAT = 0;
+    private static final int COMPUTER_SEAT = 1;
     private List<Card> playerPokerHand;
     private List<Card> computerPokerHand;
+    // Five-card draw: player's cards marked for exchange, open until Exchange or Evaluate
+    private final boolean[] playerDiscards = new boolean[5];
+    private boolean pokerExchangeOpen;
+
+    // Card faces and back scaled to each size they are drawn at, keyed by card code
+    private final CardImageCache cardImages = new CardImageCache(slot -> slot == CardImageCache.BACK
+            ? "image/poker.png" : "image/" + Card.of(slot).getAssetKey() + ".png", 4L << 20);
+    // Poker analysis caches, keyed by suit-canonical hand
+    private final LruCache<HandCanonicalizer.Key, String> handDetailsCache = new LruCache<>(4096);
+    private final LruCache<HandCanonicalizer.Key, EquityCalculator.Equity> equityCache = new LruCache<>(4096);
+
+    // Card class (custom ADT): one immutable instance per card, shared by every shoe, hand
+    // and cache. A card's code (see PokerEvaluator.cardCode) is its ordinal, 0 to 51.
+    static final class Card {
+        private static final String[] SUITS = {"♠", "♥", "♦", "♣"};
+        // Suit letters of the card image files, e.g. image/SA.png
+        private static final String SUIT_LETTERS = "SHDC";
+        private static final Card[] CARDS = allCards();
 
-    // Card class (custom ADT)
-    static class Card {
         private final String suit;
         private final int rank;
+        private final int code;
+        private final String name;
+        private final String assetKey;
+
+        private Card(int code) {
+            this.code = code;
+            this.suit = SUITS[code / 13];
+            this.rank = PokerEvaluator.cardRank(code % 13);
+            String rankStr;
+            switch (rank) {
+                case 1: rankStr = "A"; break;
+                case 11: rankStr = "J"; break;
+                case 12: rankStr = "Q"; break;
+                case 13: rankStr = "K"; break;
+                default: rankStr = String.valueOf(rank);
+            }
+            this.name = suit + rankStr;
+            this.assetKey = SUIT_LETTERS.charAt(code / 13) + rankStr;
+        }
+
+        private static Card[] allCards() {
+            Card[] cards = new Card[52];
+            for (int code = 0; code < cards.length; code++) {
+                cards[code] = new Card(code);
+            }
+            return cards;
+        }
+
+        // The card of a card code
+        public static Card of(int code) {
+            return CARDS[code];
+        }
 
-        public Card(String suit, int rank) {
-            this.suit = suit;
-            this.rank = rank;
+        // The card of a suit symbol and a rank (1 = Ace ... 13 = King)
+        public static Card of(String suit, int rank) {
+            return CARDS[PokerEvaluator.cardCode(PokerEvaluator.suitIndex(suit), rank)];
         }
 
         public String getSuit() {
@@ -66,17 +133,19 @@ public class CardSagaSaga extends JFrame implements ActionListener {
             return rank;
         }
 
+        // Evaluator card code (see PokerEvaluator.cardCode), also the card's ordinal
+        public int getCode() {
+            return code;
+        }
+
+        // Image file name without extension, e.g. "H10"
+        public String getAssetKey() {
+            return assetKey;
+        }
+
         @Override
         public String toString() {
-            String rankStr;
-            switch (rank) {
-                case 1: rankStr = "A"; break;
-                case 11: rankStr = "J"; break;
-                case 12: rankStr = "Q"; break;
-                case 13: rankStr = "K"; break;
-                default: rankStr = String.valueOf(rank);
-            }
-            return suit + rankStr;
+            return name;
         }
     }
 
@@ -325,16 +394,9 @@ public class CardSagaSaga extends JFrame implements ActionListener {
         return button;
     }
 
-    // Backend: Initialize deck
-    private List<Card> initDeck() {
-        List<Card> deck = new ArrayList<>();
-        String[] suits = {"♠", "♥", "♦", "♣"};
-        for (String suit : suits) {
-            for (int rank = 1; rank <= 13; rank++) {
-                deck.add(new Card(suit, rank));
-            }
-        }
-        return deck;
+    // Backend: Deal the next card of a shoe
+    private Card dealCard(Shoe shoe) {
+        return Card.of(shoe.deal());
     }
 
     // Blackjack: Create UI panel
@@ -386,6 +448,13 @@ public class CardSagaSaga extends JFrame implements ActionListener {
             gamePanel.add(standButton, gbc);
             gbc.gridx = 0;
             gbc.gridy = 5;
+            doubleButton = createStyledButton("Double");
+            gamePanel.add(doubleButton, gbc);
+            gbc.gridx = 1;
+            splitButton = createStyledButton("Split");
+            gamePanel.add(splitButton, gbc);
+            gbc.gridx = 0;
+            gbc.gridy = 6;
             // gbc.gridwidth = 2;
             blackjackNewGameButton = createStyledButton("New Game");
             gamePanel.add(blackjackNewGameButton, gbc);
@@ -393,6 +462,14 @@ public class CardSagaSaga extends JFrame implements ActionListener {
             blackjackBackButton = createStyledButton("Back to Menu");
             gamePanel.add(blackjackBackButton, gbc);
             bgLabel.add(gamePanel, BorderLayout.CENTER);
+            // Live odds overlay
+            blackjackOddsLabel = new JLabel();
+            blackjackOddsLabel.setForeground(Color.WHITE);
+            blackjackOddsLabel.setFont(new Font("Arial", Font.BOLD, 16));
+            blackjackOddsLabel.setVerticalAlignment(SwingConstants.TOP);
+            blackjackOddsLabel.setPreferredSize(new Dimension(320, 600));
+            blackjackOddsLabel.setBorder(BorderFactory.createEmptyBorder(40, 10, 10, 30));
+            bgLabel.add(blackjackOddsLabel, BorderLayout.EAST);
             blackjackPanel.add(bgLabel, BorderLayout.CENTER);
         }
         mainPanel.add(blackjackPanel, "blackjack");
@@ -404,60 +481,219 @@ public class CardSagaSaga extends JFrame implements ActionListener {
 
     // Blackjack: Initialize game
     private void initBlackjackGame() {
-        blackjackDeck = initDeck();
-        Collections.shuffle(blackjackDeck);
-        playerHand = new ArrayList<>();
+        blackjackShoe.shuffle();
+        playerHands.reset(PlayerHands.UNIT_BET);
         dealerHand = new ArrayList<>();
-        playerHand.add(blackjackDeck.remove(0));
-        dealerHand.add(blackjackDeck.remove(0));
-        playerHand.add(blackjackDeck.remove(0));
-        dealerHand.add(blackjackDeck.remove(0));
-        hitButton.setEnabled(true);
-        standButton.setEnabled(true);
-        updateBlackjackUI();
+        playerHands.add(blackjackShoe.deal());
+        dealerHand.add(dealCard(blackjackShoe));
+        playerHands.add(blackjackShoe.deal());
+        dealerHand.add(dealCard(blackjackShoe));
+        advanceBlackjackHands();
     }
 
     // Blackjack: Update UI
     private void updateBlackjackUI() {
         playerCardsPanel.removeAll();
         dealerCardsPanel.removeAll();
-        for (Card card : playerHand) {
-            playerCardsPanel.add(createCardLabel(card, true));
+        for (int hand = 0; hand < playerHands.hands(); hand++) {
+            if (hand > 0) {
+                JLabel gap = new JLabel("|");
+                gap.setForeground(Color.WHITE);
+                gap.setFont(new Font("Arial", Font.BOLD, 40));
+                playerCardsPanel.add(gap);
+            }
+            for (int i = 0; i < playerHands.cards(hand); i++) {
+                playerCardsPanel.add(createCardLabel(Card.of(playerHands.code(hand, i)), true));
+            }
         }
         for (int i = 0; i < dealerHand.size(); i++) {
-            dealerCardsPanel.add(createCardLabel(dealerHand.get(i), i == 0));
+            dealerCardsPanel.add(createCardLabel(dealerHand.get(i), i != 0));
         }
-        int playerScore = calculateBlackjackScore(playerHand);
-        playerScoreLabel.setText("Player Score: " + playerScore);
+        playerScoreLabel.setText("Player Score: " + playerScoreText());
         int dealerScore = calculateBlackjackScore(dealerHand.subList(1, dealerHand.size())); // Hide first card
         dealerScoreLabel.setText("Dealer Score: " + dealerScore);
         playerCardsPanel.revalidate();
         playerCardsPanel.repaint();
         dealerCardsPanel.revalidate();
         dealerCardsPanel.repaint();
+        requestBlackjackOdds();
     }
 
-    // Blackjack: Player hits
-    private void blackjackHit() {
-        playerHand.add(blackjackDeck.remove(0));
+    // Blackjack: What the odds overlay needs to know, copied on the EDT
+    private static final class BlackjackOddsQuery {
+        final BlackjackRules rules;
+        // Every card the player cannot see: the rest of the shoe and the dealer's hole card
+        final long unseen;
+        final int upcard;
+        final boolean playing;
+        final int hard;
+        final boolean soft;
+        final int pairRank;
+        final int hands;
+        final boolean canDouble;
+        final boolean canSplit;
+        final boolean canSurrender;
+
+        BlackjackOddsQuery(BlackjackRules rules, long unseen, int upcard, PlayerHands playerHands) {
+            this.rules = rules;
+            this.unseen = unseen;
+            this.upcard = upcard;
+            this.playing = !playerHands.done();
+            int hand = playing ? playerHands.active() : 0;
+            this.hard = playerHands.hard(hand);
+            this.soft = playerHands.soft(hand);
+            this.pairRank = playerHands.pairRank(hand);
+            this.hands = playerHands.hands();
+            this.canDouble = playerHands.canDouble(rules);
+            this.canSplit = playerHands.canSplit(rules);
+            this.canSurrender = playerHands.canSurrender(rules);
+        }
+    }
+
+    // Blackjack: Refresh the odds overlay off the EDT. The shoe keeps the composition of its
+    // undealt cards up to date as each card leaves it; adding back the hole card gives what
+    // the player has not seen. Queries arriving while one runs are coalesced to the latest.
+    private void requestBlackjackOdds() {
+        Card hole = dealerHand.get(0);
+        long unseen = DeckComposition.add(blackjackShoe.composition(), DeckComposition.rankOf(hole.getCode()), 1);
+        BlackjackOddsQuery query = new BlackjackOddsQuery(blackjackRules, unseen,
+                DeckComposition.rankOf(dealerHand.get(1).getCode()), playerHands);
+        if (blackjackOddsRunning) {
+            pendingBlackjackOdds = query;
+        } else {
+            startBlackjackOdds(query);
+        }
+    }
+
+    private void startBlackjackOdds(BlackjackOddsQuery query) {
+        blackjackOddsRunning = true;
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return blackjackOddsText(query);
+            }
+
+            @Override
+            protected void done() {
+                BlackjackOddsQuery next = pendingBlackjackOdds;
+                pendingBlackjackOdds = null;
+                blackjackOddsRunning = false;
+                if (next != null) {
+                    // Already stale; go straight to the latest query
+                    startBlackjackOdds(next);
+                    return;
+                }
+                try {
+                    blackjackOddsLabel.setText(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    blackjackOddsLabel.setText("<html>Odds unavailable</html>");
+                }
+            }
+        }.execute();
+    }
+
+    // Blackjack: Overlay text for a query; runs on a worker thread
+    private String blackjackOddsText(BlackjackOddsQuery query) {
+        StringBuilder sb = new StringBuilder("<html>");
+        int cards = DeckComposition.total(query.unseen);
+        sb.append("Unseen cards: ").append(cards).append("<br><br>");
+        if (!query.playing) {
+            sb.append("Round over<br><br>");
+        } else {
+            int busting = 0;
+            for (int rank = 22 - query.hard; rank <= 10; rank++) {
+                busting += DeckComposition.count(query.unseen, rank);
+            }
+            sb.append(String.format("Bust if you hit: %.1f%%<br><br>", 100.0 * busting / cards));
+        }
+        double[] dealer = blackjackDealerOdds.distribution(query.unseen, query.upcard, query.rules.dealerPeeks);
+        sb.append("Dealer finishes on:<br>");
+        for (int total = 17; total <= 21; total++) {
+            sb.append(String.format("&nbsp;&nbsp;%d: %.1f%%<br>", total, 100 * dealer[total - 17]));
+        }
+        sb.append(String.format("&nbsp;&nbsp;Bust: %.1f%%<br><br>", 100 * dealer[DealerOdds.BUST]));
+        if (query.playing) {
+            BlackjackSolver.Decision decision = BlackjackSolver.decide(query.rules, query.unseen, query.hard,
+                    query.soft, query.pairRank, query.hands, query.upcard, query.canDouble, query.canSplit,
+                    query.canSurrender);
+            sb.append("Best play: ").append(decision.best).append("<br>");
+            for (BlackjackSolver.Action action : BlackjackSolver.Action.values()) {
+                double ev = decision.expectedValue(action);
+                if (!Double.isNaN(ev)) {
+                    sb.append(String.format("&nbsp;&nbsp;%s: %+.3f<br>", action, ev));
+                }
+            }
+        }
+        return sb.append("</html>").toString();
+    }
+
+    // Blackjack: Score of every hand, the one being played marked, e.g. "18 | 12 (playing)"
+    private String playerScoreText() {
+        StringBuilder sb = new StringBuilder();
+        for (int hand = 0; hand < playerHands.hands(); hand++) {
+            if (hand > 0) {
+                sb.append(" | ");
+            }
+            sb.append(playerHands.total(hand));
+            if (playerHands.hands() > 1 && hand == playerHands.active()) {
+                sb.append(" (playing)");
+            }
+        }
+        return sb.toString();
+    }
+
+    // Blackjack: Deal split hands their second card, then let the player act or end the round
+    private void advanceBlackjackHands() {
+        while (playerHands.needsCard()) {
+            playerHands.add(blackjackShoe.deal());
+        }
         updateBlackjackUI();
-        int playerScore = calculateBlackjackScore(playerHand);
-        if (playerScore > 21) {
-            hitButton.setEnabled(false);
-            standButton.setEnabled(false);
-            JOptionPane.showMessageDialog(this, "Your hand is over 21. Dealer wins!", "Result", JOptionPane.INFORMATION_MESSAGE);
-        } else if (playerScore == 21) {
-            blackjackStand();
+        boolean playing = !playerHands.done();
+        hitButton.setEnabled(playing);
+        standButton.setEnabled(playing);
+        doubleButton.setEnabled(playing && playerHands.canDouble(blackjackRules));
+        splitButton.setEnabled(playing && playerHands.canSplit(blackjackRules));
+        if (!playing) {
+            finishBlackjackRound();
         }
     }
 
+    // Blackjack: Player hits
+    private void blackjackHit() {
+        playerHands.add(blackjackShoe.deal());
+        advanceBlackjackHands();
+    }
+
     // Blackjack: Player stands
     private void blackjackStand() {
-        hitButton.setEnabled(false);
-        standButton.setEnabled(false);
+        playerHands.stand();
+        advanceBlackjackHands();
+    }
+
+    // Blackjack: Player doubles the bet and takes one last card
+    private void blackjackDouble() {
+        playerHands.doubleDown(blackjackShoe.deal());
+        advanceBlackjackHands();
+    }
+
+    // Blackjack: Player splits a pair into two hands
+    private void blackjackSplit() {
+        playerHands.split();
+        advanceBlackjackHands();
+    }
+
+    // Blackjack: Dealer plays if any hand still stands, then every hand is settled
+    private void finishBlackjackRound() {
+        if (!playerHands.anyStanding()) {
+            String message = playerHands.hands() == 1 ? "Your hand is over 21. Dealer wins!"
+                    : "All your hands are over 21. Dealer wins!";
+            JOptionPane.showMessageDialog(this, message + "\nDeal " + blackjackShoe.dealId(), "Result",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
         int dealerScore = calculateBlackjackScore(dealerHand);
-        while (dealerScore < 17) {
-            dealerHand.add(blackjackDeck.remove(0));
+        while (blackjackRules.dealerHits(dealerScore, dealerScore != blackjackHardTotal(dealerHand))) {
+            dealerHand.add(dealCard(blackjackShoe));
             dealerScore = calculateBlackjackScore(dealerHand);
         }
         dealerCardsPanel.removeAll();
@@ -467,18 +703,29 @@ public class CardSagaSaga extends JFrame implements ActionListener {
         dealerScoreLabel.setText("Dealer Score: " + dealerScore);
         dealerCardsPanel.revalidate();
         dealerCardsPanel.repaint();
-        int playerScore = calculateBlackjackScore(playerHand);
-        String message;
-        if (dealerScore > 21) {
-            message = "Dealer's hand is over 21. You win!";
-        } else if (dealerScore > playerScore) {
-            message = "Dealer's hand is " + dealerScore + ". Dealer wins!";
-        } else if (playerScore > dealerScore) {
-            message = "Your hand is " + playerScore + ". You win!";
-        } else {
-            message = "Draw by " + playerScore + "!";
+        StringBuilder message = new StringBuilder();
+        for (int hand = 0; hand < playerHands.hands(); hand++) {
+            if (playerHands.hands() > 1) {
+                message.append(hand > 0 ? "\n" : "").append("Hand ").append(hand + 1).append(": ");
+            }
+            int playerScore = playerHands.total(hand);
+            if (playerHands.status(hand) == PlayerHands.Status.BUSTED) {
+                message.append("Your hand is over 21. Dealer wins!");
+            } else if (dealerScore > 21) {
+                message.append("Dealer's hand is over 21. You win!");
+            } else if (dealerScore > playerScore) {
+                message.append("Dealer's hand is " + dealerScore + ". Dealer wins!");
+            } else if (playerScore > dealerScore) {
+                message.append("Your hand is " + playerScore + ". You win!");
+            } else {
+                message.append("Draw by " + playerScore + "!");
+            }
+            if (playerHands.status(hand) == PlayerHands.Status.DOUBLED) {
+                message.append(" (doubled)");
+            }
         }
-        JOptionPane.showMessageDialog(this, message, "Result", JOptionPane.INFORMATION_MESSAGE);
+        message.append("\nDeal ").append(blackjackShoe.dealId());
+        JOptionPane.showMessageDialog(this, message.toString(), "Result", JOptionPane.INFORMATION_MESSAGE);
     }
 
     // Blackjack: Calculate score
@@ -502,6 +749,15 @@ public class CardSagaSaga extends JFrame implements ActionListener {
         return score;
     }
 
+    // Blackjack: Hand total with every Ace counted as 1; a score above it is soft
+    private int blackjackHardTotal(List<Card> hand) {
+        int hard = 0;
+        for (Card card : hand) {
+            hard += DeckComposition.rankOfCardRank(card.getRank());
+        }
+        return hard;
+    }
+
     // Poker: Create UI panel
     private void createPokerPanel() {
         pokerPanel = new JPanel(new BorderLayout());
@@ -552,16 +808,21 @@ public class CardSagaSaga extends JFrame implements ActionListener {
            
             gbc.gridx = 0;
             gbc.gridy = 4;
+            exchangeButton = createStyledButton("Exchange");
+            exchangeButton.setEnabled(false);
+            gamePanel.add(exchangeButton, gbc);
+            gbc.gridx = 0;
+            gbc.gridy = 5;
             evaluateButton = createStyledButton("Evaluate");
             evaluateButton.setEnabled(false);
             gamePanel.add(evaluateButton, gbc);
             gbc.gridx = 0;
-            gbc.gridy = 5;
+            gbc.gridy = 6;
             assessHandsButton = createStyledButton("Assess Hands");
             assessHandsButton.setEnabled(false);
             gamePanel.add(assessHandsButton, gbc);
             gbc.gridx = 0;
-            gbc.gridy = 6;
+            gbc.gridy = 7;
             pokerNewGameBUtton = createStyledButton("New Game");
             gamePanel.add(pokerNewGameBUtton, gbc);
             gbc.gridx = 7;
@@ -580,14 +841,15 @@ public class CardSagaSaga extends JFrame implements ActionListener {
 
     // Poker: Initialize game
     private void initPokerGame() {
-        pokerDeck = initDeck();
-        Collections.shuffle(pokerDeck);
+        pokerShoe.shuffle();
         playerPokerHand = new ArrayList<>();
         computerPokerHand = new ArrayList<>();
         playerPokerCardsPanel.removeAll();
         computerPokerCardsPanel.removeAll();
-        pokerResultLabel.setText("Draw cards and evaluate");
+        pokerResultLabel.setText("Draw cards and evaluate (deal " + pokerShoe.dealId() + ")");
+        pokerExchangeOpen = false;
         drawButton.setEnabled(true);
+        exchangeButton.setEnabled(false);
         evaluateButton.setEnabled(false);
         assessHandsButton.setEnabled(false);
         playerPokerCardsPanel.revalidate();
@@ -601,21 +863,71 @@ public class CardSagaSaga extends JFrame implements ActionListener {
         playerPokerHand.clear();
         computerPokerHand.clear();
         for (int i = 0; i < 5; i++) {
-            playerPokerHand.add(pokerDeck.remove(0));
-            computerPokerHand.add(pokerDeck.remove(0));
+            playerPokerHand.add(dealCard(pokerShoe));
+            computerPokerHand.add(dealCard(pokerShoe));
         }
+        Arrays.fill(playerDiscards, false);
+        pokerExchangeOpen = true;
         updatePokerUI(false);
+        pokerResultLabel.setText("Click cards to exchange, or evaluate");
         drawButton.setEnabled(false);
+        exchangeButton.setEnabled(true);
         evaluateButton.setEnabled(true);
         assessHandsButton.setEnabled(true);
     }
 
+    // Poker: Replace the player's marked cards, then the computer draws by its strategy table
+    private void pokerExchange() {
+        for (int i = 0; i < 5; i++) {
+            if (playerDiscards[i]) {
+                playerPokerHand.set(i, dealCard(pokerShoe));
+            }
+        }
+        int computerHold = computerPokerHold();
+        int computerDraws = 0;
+        for (int i = 0; i < 5; i++) {
+            if ((computerHold & (1 << i)) == 0) {
+                computerPokerHand.set(i, dealCard(pokerShoe));
+                computerDraws++;
+            }
+        }
+        Arrays.fill(playerDiscards, false);
+        pokerExchangeOpen = false;
+        exchangeButton.setEnabled(false);
+        updatePokerUI(false);
+        pokerResultLabel.setText("Computer drew " + computerDraws + (computerDraws == 1 ? " card" : " cards"));
+    }
+
+    // Poker: Computer's best hold option by exact EV (bit i set = keep card i)
+    private int computerPokerHold() {
+        int[] codes = new int[5];
+        for (int i = 0; i < 5; i++) {
+            codes[i] = computerPokerHand.get(i).getCode();
+        }
+        return DrawSolver.bestHold(codes);
+    }
+
     // Poker: Update UI
     private void updatePokerUI(boolean revealComputer) {
         playerPokerCardsPanel.removeAll();
         computerPokerCardsPanel.removeAll();
-        for (Card card : playerPokerHand) {
-            playerPokerCardsPanel.add(createCardLabel(card, true));
+        for (int i = 0; i < playerPokerHand.size(); i++) {
+            JLabel cardLabel = createCardLabel(playerPokerHand.get(i), true);
+            if (pokerExchangeOpen) {
+                int index = i;
+                cardLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+                if (playerDiscards[index]) {
+                    cardLabel.setBorder(BorderFactory.createLineBorder(new Color(255, 187, 234), 3));
+                }
+                cardLabel.addMouseListener(new MouseAdapter() {
+                    @Override
+                    public void mouseClicked(MouseEvent e) {
+                        playerDiscards[index] = !playerDiscards[index];
+                        updatePokerUI(false);
+                    }
+                });
+            }
+            playerPokerCardsPanel.add(cardLabel);
         }
         for (Card card : computerPokerHand) {
             playerPokerCardsPanel.add(createCardLabel(card, revealComputer));
@@ -628,23 +940,29 @@ public class CardSagaSaga extends JFrame implements ActionListener {
 
     // Poker: Evaluate hands
     private void pokerEvaluate() {
+        pokerExchangeOpen = false;
+        exchangeButton.setEnabled(false);
         updatePokerUI(true);
-        String playerHandType = evaluatePokerHand(playerPokerHand);
-        String computerHandType = evaluatePokerHand(computerPokerHand);
-        int playerRank = getPokerHandRank(playerHandType);
-        int computerRank = getPokerHandRank(computerHandType);
-        if (playerRank > computerRank) {
-            pokerResultLabel.setText("You win with " + playerHandType + " vs " + computerHandType);
-        } else if (computerRank > playerRank) {
-            pokerResultLabel.setText("Computer wins with " + computerHandType + " vs " + playerHandType);
-        } else {
-            int result = compareHighCards(playerPokerHand, computerPokerHand, playerHandType);
-            if (result > 0) {
+        Showdown.Result showdown = Showdown.rank(new long[] {
+                pokerCardSet(playerPokerHand), pokerCardSet(computerPokerHand)});
+        int playerStrength = showdown.strength(PLAYER_SEAT);
+        int computerStrength = showdown.strength(COMPUTER_SEAT);
+        String playerHandType = PokerEvaluator.handName(playerStrength);
+        String computerHandType = PokerEvaluator.handName(computerStrength);
+        boolean sameCategory = getPokerHandRank(playerStrength) == getPokerHandRank(computerStrength);
+        if (showdown.isSplit()) {
+            pokerResultLabel.setText("Draw! Both have equal " + playerHandType);
+        } else if (showdown.seatAt(0) == PLAYER_SEAT) {
+            if (sameCategory) {
                 pokerResultLabel.setText("You win with higher " + playerHandType);
-            } else if (result < 0) {
+            } else {
+                pokerResultLabel.setText("You win with " + playerHandType + " vs " + computerHandType);
+            }
+        } else {
+            if (sameCategory) {
                 pokerResultLabel.setText("Computer wins with higher " + computerHandType);
             } else {
-                pokerResultLabel.setText("Draw! Both have equal " + playerHandType);
+                pokerResultLabel.setText("Computer wins with " + computerHandType + " vs " + playerHandType);
             }
         }
         evaluateButton.setEnabled(false);
@@ -653,8 +971,12 @@ public class CardSagaSaga extends JFrame implements ActionListener {
     // Poker: Assess hands
     private void assessPokerHands() {
         updatePokerUI(true);
-        String playerHandType = evaluatePokerHand(playerPokerHand);
-        String computerHandType = evaluatePokerHand(computerPokerHand);
+        Showdown.Result showdown = Showdown.rank(new long[] {
+                pokerCardSet(playerPokerHand), pokerCardSet(computerPokerHand)});
+        int playerStrength = showdown.strength(PLAYER_SEAT);
+        int computerStrength = showdown.strength(COMPUTER_SEAT);
+        String playerHandType = PokerEvaluator.handName(playerStrength);
+        String computerHandType = PokerEvaluator.handName(computerStrength);
         StringBuilder assessment = new StringBuilder();
         assessment.append("Hand Assessment:\n\n");
         assessment.append("Your Hand: ").append(playerHandType).append("\n");
@@ -673,22 +995,21 @@ public class CardSagaSaga extends JFrame implements ActionListener {
         assessment.append("\n");
         assessment.append(getHandDetails(computerPokerHand, computerHandType));
         assessment.append("\n\n");
-        int playerRank = getPokerHandRank(playerHandType);
-        int computerRank = getPokerHandRank(computerHandType);
-        if (playerRank > computerRank) {
-            assessment.append("Your hand is stronger than the computer's hand.");
-        } else if (computerRank > playerRank) {
-            assessment.append("The computer's hand is stronger than your hand.");
+        boolean sameCategory = getPokerHandRank(playerStrength) == getPokerHandRank(computerStrength);
+        if (showdown.isSplit()) {
+            assessment.append("Both hands are of equal strength.");
+        } else if (showdown.seatAt(0) == PLAYER_SEAT) {
+            assessment.append(sameCategory ? "Your hand is stronger due to higher cards."
+                    : "Your hand is stronger than the computer's hand.");
         } else {
-            int result = compareHighCards(playerPokerHand, computerPokerHand, playerHandType);
-            if (result > 0) {
-                assessment.append("Your hand is stronger due to higher cards.");
-            } else if (result < 0) {
-                assessment.append("The computer's hand is stronger due to higher cards.");
-            } else {
-                assessment.append("Both hands are of equal strength.");
-            }
+            assessment.append(sameCategory ? "The computer's hand is stronger due to higher cards."
+                    : "The computer's hand is stronger than your hand.");
         }
+        EquityCalculator.Equity equity = equityCache.get(HandCanonicalizer.canonical(pokerCardSet(playerPokerHand)),
+                key -> EquityCalculator.monteCarlo(key.hand, key.dead,
+                        EquityCalculator.ASSESSMENT_TARGET_ERROR, EquityCalculator.ASSESSMENT_MAX_TRIALS,
+                        EquityCalculator.ASSESSMENT_TIME_LIMIT_MILLIS, System.nanoTime()));
+        assessment.append("\n\nYour chances against an unknown hand:\n").append(equity);
         JTextArea textArea = new JTextArea(assessment.toString());
         textArea.setEditable(false);
         textArea.setLineWrap(true);
@@ -699,7 +1020,14 @@ public class CardSagaSaga extends JFrame implements ActionListener {
         JOptionPane.showMessageDialog(this, scrollPane, "Poker Hand Assessment", JOptionPane.INFORMATION_MESSAGE);
     }
 
+    // Poker: Detailed hand description, cached by suit-canonical hand
     private String getHandDetails(List<Card> hand, String handType) {
+        return handDetailsCache.get(HandCanonicalizer.canonical(pokerCardSet(hand)),
+                key -> describeHand(hand, handType));
+    }
+
+    // Poker: Generate detailed hand description (uncached)
+    private String describeHand(List<Card> hand, String handType) {
         StringBuilder details = new StringBuilder();
         List<Card> sortedHand = new ArrayList<>(hand);
         Collections.sort(sortedHand, (c1, c2) -> {
@@ -782,33 +1110,6 @@ public class CardSagaSaga extends JFrame implements ActionListener {
         }
         return details.toString();
     }
-    // Poker: Compare high cards
-    private int compareHighCards(List<Card> playerHand, List<Card> computerHand, String handType) {
-        Collections.sort(playerHand, (c1, c2) -> c2.getRank() - c1.getRank());
-        Collections.sort(computerHand, (c1, c2) -> c2.getRank() - c1.getRank());
-        if (handType.equals("Pair") || handType.equals("Two Pairs") ||
-                handType.equals("Three of A Kind") || handType.equals("Full House") ||
-                handType.equals("Four of A Kind")) {
-            Map<Integer, Integer> playerRankFreq = getRankFrequencies(playerHand);
-            Map<Integer, Integer> computerRankFreq = getRankFrequencies(computerHand);
-            if (handType.equals("Pair")) {
-                int playerPairRank = getPairRank(playerRankFreq);
-                int computerPairRank = getPairRank(computerRankFreq);
-                if (playerPairRank != computerPairRank) {
-                    return playerPairRank - computerPairRank;
-                }
-            }
-        }
-        for (int i = 0; i < playerHand.size(); i++) {
-            int playerRank = convertAceRank(playerHand.get(i).getRank());
-            int computerRank = convertAceRank(computerHand.get(i).getRank());
-            if (playerRank != computerRank) {
-                return playerRank - computerRank;
-            }
-        }
-        return 0;
-    }
-
     // Poker: Convert Ace rank
     private int convertAceRank(int rank) {
         return rank == 1 ? 14 : rank;
@@ -824,143 +1125,29 @@ public class CardSagaSaga extends JFrame implements ActionListener {
         return frequencyMap;
     }
 
-    // Poker: Get pair rank
-    private int getPairRank(Map<Integer, Integer> rankFreq) {
-        for (Map.Entry<Integer, Integer> entry : rankFreq.entrySet()) {
-            if (entry.getValue() == 2) {
-                return entry.getKey();
-            }
-        }
-        return 0;
-    }
-
     // Poker: Evaluate hand
     private String evaluatePokerHand(List<Card> hand) {
-        Collections.sort(hand, (c1, c2) -> {
-            int rank1 = c1.getRank() == 1 ? 14 : c1.getRank();
-            int rank2 = c2.getRank() == 1 ? 14 : c2.getRank();
-            return rank1 - rank2;
-        });
-        boolean isFlush = isFlush(hand);
-        boolean isStraight = isStraight(hand);
-        if (isFlush && isStraight) {
-            if (hand.get(0).getRank() == 10 && hand.get(1).getRank() == 11 &&
-                    hand.get(2).getRank() == 12 && hand.get(3).getRank() == 13 &&
-                    hand.get(4).getRank() == 1) {
-                return "Royal Flush";
-            }
-            return "Straight Flush";
-        }
-        Map<Integer, Integer> rankCounts = new HashMap<>();
-        for (Card card : hand) {
-            int rank = card.getRank() == 1 ? 14 : card.getRank();
-            rankCounts.put(rank, rankCounts.getOrDefault(rank, 0) + 1);
-        }
-        if (hasFourOfAKind(rankCounts)) {
-            return "Four of A Kind";
-        }
-        if (hasFullHouse(rankCounts)) {
-            return "Full House";
-        }
-        if (isFlush) {
-            return "Flush";
-        }
-        if (isStraight) {
-            return "Straight";
-        }
-        if (hasThreeOfAKind(rankCounts)) {
-            return "Three of A Kind";
-        }
-        if (hasTwoPairs(rankCounts)) {
-            return "Two Pairs";
-        }
-        if (hasPair(rankCounts)) {
-            return "Pair";
-        }
-        return "High Card";
+        return PokerEvaluator.handName(pokerStrength(hand));
     }
 
-    // Poker: Check Flush
-    private boolean isFlush(List<Card> hand) {
-        String suit = hand.get(0).getSuit();
+    // Poker: CardSet of a hand
+    private long pokerCardSet(List<Card> hand) {
+        long set = CardSet.EMPTY;
         for (Card card : hand) {
-            if (!card.getSuit().equals(suit)) {
-                return false;
-            }
+            set = CardSet.add(set, card.getCode());
         }
-        return true;
+        return set;
     }
 
-    // Poker: Check Straight
-    private boolean isStraight(List<Card> hand) {
-        List<Card> sortedHand = new ArrayList<>(hand);
-        Collections.sort(sortedHand, (c1, c2) -> {
-            int rank1 = c1.getRank() == 1 ? 14 : c1.getRank();
-            int rank2 = c2.getRank() == 1 ? 14 : c2.getRank();
-            return rank1 - rank2;
-        });
-        if (sortedHand.get(0).getRank() == 2 &&
-                sortedHand.get(1).getRank() == 3 &&
-                sortedHand.get(2).getRank() == 4 &&
-                sortedHand.get(3).getRank() == 5 &&
-                sortedHand.get(4).getRank() == 1) {
-            return true;
-        }
-        for (int i = 0; i < sortedHand.size() - 1; i++) {
-            int currentRank = sortedHand.get(i).getRank() == 1 ? 14 : sortedHand.get(i).getRank();
-            int nextRank = sortedHand.get(i+1).getRank() == 1 ? 14 : sortedHand.get(i+1).getRank();
-            if (nextRank - currentRank != 1) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    // Poker: Check Four of a Kind
-    private boolean hasFourOfAKind(Map<Integer, Integer> rankCounts) {
-        return rankCounts.containsValue(4);
-    }
-
-    // Poker: Check Full House
-    private boolean hasFullHouse(Map<Integer, Integer> rankCounts) {
-        return rankCounts.containsValue(3) && rankCounts.containsValue(2);
-    }
-
-    // Poker: Check Three of a Kind
-    private boolean hasThreeOfAKind(Map<Integer, Integer> rankCounts) {
-        return rankCounts.containsValue(3);
-    }
-
-    // Poker: Check Two Pairs
-    private boolean hasTwoPairs(Map<Integer, Integer> rankCounts) {
-        int pairCount = 0;
-        for (int count : rankCounts.values()) {
-            if (count == 2) {
-                pairCount++;
-            }
-        }
-        return pairCount == 2;
-    }
-
-    // Poker: Check Pair
-    private boolean hasPair(Map<Integer, Integer> rankCounts) {
-        return rankCounts.containsValue(2);
+    // Poker: Packed hand strength (category and kickers) from the lookup tables
+    private int pokerStrength(List<Card> hand) {
+        return PokerEvaluator.evaluate(hand.get(0).getCode(), hand.get(1).getCode(),
+                hand.get(2).getCode(), hand.get(3).getCode(), hand.get(4).getCode());
     }
 
     // Poker: Get hand rank
-    private int getPokerHandRank(String handType) {
-        switch (handType) {
-            case "Royal Flush": return 10;
-            case "Straight Flush": return 9;
-            case "Four of A Kind": return 8;
-            case "Full House": return 7;
-            case "Flush": return 6;
-            case "Straight": return 5;
-            case "Three of A Kind": return 4;
-            case "Two Pairs": return 3;
-            case "Pair": return 2;
-            default: return 1; // High Card
-        }
+    private int getPokerHandRank(int strength) {
+        return PokerEvaluator.category(strength);
     }
 
     // Poker: Get rank name
@@ -975,38 +1162,16 @@ public class CardSagaSaga extends JFrame implements ActionListener {
     private JLabel createCardLabel(Card card, boolean visible) {
         final int CARD_WIDTH = 80; 
         final int CARD_HEIGHT = 112;
-        if (visible) {
-            String cardName = card.toString().replace("♠", "S").replace("♥", "H").replace("♦", "D").replace("♣", "C");
-            URL cardUrl = getClass().getResource("image/" + cardName + ".png");
-            if (cardUrl != null) {
-                ImageIcon cardIcon = new ImageIcon(cardUrl);
-                Image scaledImage = cardIcon.getImage().getScaledInstance(CARD_WIDTH, CARD_HEIGHT, Image.SCALE_SMOOTH);
-                return new JLabel(new ImageIcon(scaledImage));
-            } else {
-                System.err.println("Card image not found: " + cardName + ".png");
-                JLabel fallback = new JLabel(card.toString(), SwingConstants.CENTER);
-                fallback.setFont(new Font("Arial", Font.BOLD, 12));
-                fallback.setForeground(Color.RED);
-                fallback.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-                fallback.setPreferredSize(new Dimension(CARD_WIDTH, CARD_HEIGHT));
-                return fallback;
-            }
-        } else {
-            URL backUrl = getClass().getResource("image/poker.png");
-            if (backUrl != null) {
-                ImageIcon backIcon = new ImageIcon(backUrl);
-                Image scaledImage = backIcon.getImage().getScaledInstance(CARD_WIDTH, CARD_HEIGHT, Image.SCALE_SMOOTH);
-                return new JLabel(new ImageIcon(scaledImage));
-            } else {
-                System.err.println("Card back image not found: back.png");
-                JLabel fallback = new JLabel("Hidden", SwingConstants.CENTER);
-                fallback.setFont(new Font("Arial", Font.BOLD, 12));
-                fallback.setForeground(Color.BLUE);
-                fallback.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-                fallback.setPreferredSize(new Dimension(CARD_WIDTH, CARD_HEIGHT));
-                return fallback;
-            }
+        Image image = cardImages.get(visible ? card.getCode() : CardImageCache.BACK, CARD_WIDTH, CARD_HEIGHT);
+        if (image != null) {
+            return new JLabel(new ImageIcon(image));
         }
+        JLabel fallback = new JLabel(visible ? card.toString() : "Hidden", SwingConstants.CENTER);
+        fallback.setFont(new Font("Arial", Font.BOLD, 12));
+        fallback.setForeground(visible ? Color.RED : Color.BLUE);
+        fallback.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+        fallback.setPreferredSize(new Dimension(CARD_WIDTH, CARD_HEIGHT));
+        return fallback;
     }
 
     // Action handler
@@ -1020,12 +1185,18 @@ public class CardSagaSaga extends JFrame implements ActionListener {
             blackjackHit();
         } else if (e.getSource() == standButton) {
             blackjackStand();
+        } else if (e.getSource() == doubleButton) {
+            blackjackDouble();
+        } else if (e.getSource() == splitButton) {
+            blackjackSplit();
         } else if (e.getSource() == blackjackNewGameButton) {
             initBlackjackGame();
         } else if (e.getSource() == pokerNewGameBUtton) {
             initPokerGame();
         }else if (e.getSource() == drawButton) {
             pokerDraw();
+        } else if (e.getSource() == exchangeButton) {
+            pokerExchange();
         } else if (e.getSource() == evaluateButton) {
             pokerEvaluate();
         } else if (e.getSource() == assessHandsButton) {
@@ -0,0 +1,136 @@
+// CardSet.java
+// 52-bit card sets packed into a long, for hands, dealt cards and remaining decks
+
+// Bit (suit * 13 + rank index) is set when that card is in the set, using the same
+// card codes as PokerEvaluator. Each suit therefore owns a 13-bit rank mask
+// (bit 0 = Two ... bit 12 = Ace). All operations are static on plain longs so the
+// hot paths never box or chase object pointers.
+public final class CardSet {
+    public static final long EMPTY = 0L;
+    public static final long FULL_DECK = (1L << 52) - 1;
+    public static final int RANK_MASK_BITS = 0x1FFF;
+
+    // All four cards of each rank index
+    private static final long[] RANK_CARDS = new long[13];
+
+    static {
+        for (int rank = 0; rank < 13; rank++) {
+            for (int suit = 0; suit < 4; suit++) {
+                RANK_CARDS[rank] |= 1L << (suit * 13 + rank);
+            }
+        }
+    }
+
+    private CardSet() {
+    }
+
+    // Set holding a single card code
+    public static long of(int code) {
+        return 1L << code;
+    }
+
+    // Set holding the given card codes
+    public static long of(int... codes) {
+        long set = EMPTY;
+        for (int code : codes) {
+            set |= 1L << code;
+        }
+        return set;
+    }
+
+    public static long add(long set, int code) {
+        return set | (1L << code);
+    }
+
+    public static long remove(long set, int code) {
+        return set & ~(1L << code);
+    }
+
+    public static boolean contains(long set, int code) {
+        return (set & (1L << code)) != 0;
+    }
+
+    public static long union(long a, long b) {
+        return a | b;
+    }
+
+    // Cards of a that are not in b, e.g. remaining = minus(FULL_DECK, dealt)
+    public static long minus(long a, long b) {
+        return a & ~b;
+    }
+
+    public static boolean intersects(long a, long b) {
+        return (a & b) != 0;
+    }
+
+    public static int size(long set) {
+        return Long.bitCount(set);
+    }
+
+    // Lowest card code in a non-empty set
+    public static int first(long set) {
+        return Long.numberOfTrailingZeros(set);
+    }
+
+    // Set without its lowest card, for iterating: for (long s = set; s != 0; s = rest(s))
+    public static long rest(long set) {
+        return set & (set - 1);
+    }
+
+    // Card code of the n-th (0-based) card in ascending code order
+    public static int nth(long set, int n) {
+        for (int i = 0; i < n; i++) {
+            set &= set - 1;
+        }
+        return Long.numberOfTrailingZeros(set);
+    }
+
+    // 13-bit rank mask of one suit
+    public static int suitMask(long set, int suit) {
+        return (int) (set >>> (suit * 13)) & RANK_MASK_BITS;
+    }
+
+    // 13-bit mask of every rank present in any suit
+    public static int rankMask(long set) {
+        return suitMask(set, 0) | suitMask(set, 1) | suitMask(set, 2) | suitMask(set, 3);
+    }
+
+    // Number of cards of a rank index in the set
+    public static int rankCount(long set, int rank) {
+        return Long.bitCount(set & RANK_CARDS[rank]);
+    }
+
+    // Suit holding at least five cards, or -1
+    public static int flushSuit(long set) {
+        for (int suit = 0; suit < 4; suit++) {
+            if (Integer.bitCount(suitMask(set, suit)) >= 5) {
+                return suit;
+            }
+        }
+        return -1;
+    }
+
+    // Rank index of the highest card of the best straight in a rank mask, or -1.
+    // The mask is shifted up one bit with the Ace copied into bit 0 so the wheel
+    // (A-2-3-4-5) falls out of the same five-way AND as every other straight.
+    public static int straightHigh(int rankMask) {
+        int m = (rankMask << 1) | (rankMask >>> 12);
+        int runs = m & (m << 1) & (m << 2) & (m << 3) & (m << 4);
+        return runs == 0 ? -1 : 30 - Integer.numberOfLeadingZeros(runs);
+    }
+
+    // Readable dump in Card.toString form, e.g. "[♠A, ♥10]"
+    public static String toString(long set) {
+        String[] suits = {"♠", "♥", "♦", "♣"};
+        String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+        StringBuilder sb = new StringBuilder("[");
+        for (long s = set; s != 0; s = rest(s)) {
+            int code = first(s);
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(suits[code / 13]).append(ranks[code % 13]);
+        }
+        return sb.append("]").toString();
+    }
+}
@@ -0,0 +1,151 @@
+// DealerOdds.java
+// Exact distribution of the dealer's final blackjack total for an upcard and remaining shoe
+import java.util.Arrays;
+
+// The dealer's play is fixed (draw to 17), so the chance of finishing on 17..21 or busting
+// depends only on the upcard, the unseen cards and whether the hole card is already known
+// not to make a natural. Every dealer position met on the way is memoized on (shoe,
+// dealer hand) in a bounded ShoeMemo, so distributions from neighbouring shoes share
+// their subtrees and a repeated query is a single probe.
+//
+// An engine is single-threaded; forCurrentThread() gives each thread its own.
+public final class DealerOdds {
+    // Outcome slots: final totals 17..21, then bust
+    public static final int OUTCOMES = 6;
+    public static final int BUST = 5;
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 20;
+
+    private static final int DEALER_TAG = 1 << 12;
+    private static final int UPCARD_TAG = 2 << 12;
+    private static final int PEEKED = 1 << 4;
+
+    private static final ThreadLocal<DealerOdds> PER_THREAD =
+            ThreadLocal.withInitial(() -> new DealerOdds(false, false, DEFAULT_MAX_ENTRIES));
+
+    private final boolean infiniteDeck;
+    private final boolean hitsSoft17;
+    private final ShoeMemo memo;
+    // One distribution per dealer draw depth, reused while that level is being summed
+    private final double[][] scratch = new double[24][OUTCOMES];
+    private long queries;
+    private long misses;
+
+    // Engine for a finite shoe or an infinite deck (shoe arguments are then ignored)
+    public DealerOdds(boolean infiniteDeck, boolean hitsSoft17, int maxEntries) {
+        this.infiniteDeck = infiniteDeck;
+        this.hitsSoft17 = hitsSoft17;
+        this.memo = new ShoeMemo(OUTCOMES, maxEntries);
+    }
+
+    // The calling thread's finite-shoe engine for the game's rules (dealer stands on soft 17)
+    public static DealerOdds forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    // Blackjack: Outcome distribution; shoe holds every unseen card, upcard excluded
+    public double[] distribution(long shoe, int upcard, boolean peeked) {
+        int slot = slot(shoe, upcard, peeked);
+        double[] dist = new double[OUTCOMES];
+        for (int i = 0; i < OUTCOMES; i++) {
+            dist[i] = memo.value(slot, i);
+        }
+        return dist;
+    }
+
+    // Blackjack: Probability of one outcome slot
+    public double probability(long shoe, int upcard, boolean peeked, int outcome) {
+        return memo.value(slot(shoe, upcard, peeked), outcome);
+    }
+
+    // Memo slot of a distribution; valid until the next query on this engine
+    int slot(long shoe, int upcard, boolean peeked) {
+        if (upcard < 1 || upcard > 10) {
+            throw new IllegalArgumentException("Expected a blackjack rank 1 to 10, got " + upcard);
+        }
+        if (infiniteDeck) {
+            shoe = DeckComposition.EMPTY;
+        }
+        queries++;
+        int state = UPCARD_TAG | upcard | (peeked ? PEEKED : 0);
+        int slot = memo.find(shoe, state);
+        if (slot >= 0) {
+            return slot;
+        }
+        misses++;
+        double[] dist = scratch[0];
+        Arrays.fill(dist, 0);
+        int cards = cardsLeft(shoe);
+        int excluded = !peeked ? 0 : upcard == 1 ? 10 : upcard == 10 ? 1 : 0;
+        double norm = excluded == 0 ? 1 : 1 - probability(shoe, excluded, cards);
+        for (int rank = 1; rank <= 10; rank++) {
+            double p = rank == excluded ? 0 : probability(shoe, rank, cards) / norm;
+            if (p != 0) {
+                dealer(draw(shoe, rank), upcard + rank, upcard == 1 || rank == 1, p, dist, 1);
+            }
+        }
+        return memo.insert(shoe, state, dist);
+    }
+
+    float value(int slot, int outcome) {
+        return memo.value(slot, outcome);
+    }
+
+    // Blackjack: Add weight times the outcome distribution from a dealer hand into acc
+    private void dealer(long shoe, int hard, boolean ace, double weight, double[] acc, int depth) {
+        int total = ace && hard + 10 <= 21 ? hard + 10 : hard;
+        if (total > 21) {
+            acc[BUST] += weight;
+            return;
+        }
+        if (total >= 17 && !(hitsSoft17 && total == 17 && total != hard)) {
+            acc[total - 17] += weight;
+            return;
+        }
+        int state = DEALER_TAG | hard | (ace ? 32 : 0);
+        int slot = memo.find(shoe, state);
+        if (slot < 0) {
+            double[] dist = scratch[depth];
+            Arrays.fill(dist, 0);
+            int cards = cardsLeft(shoe);
+            for (int rank = 1; rank <= 10; rank++) {
+                double p = probability(shoe, rank, cards);
+                if (p != 0) {
+                    dealer(draw(shoe, rank), hard + rank, ace || rank == 1, p, dist, depth + 1);
+                }
+            }
+            slot = memo.insert(shoe, state, dist);
+        }
+        for (int i = 0; i < OUTCOMES; i++) {
+            acc[i] += weight * memo.value(slot, i);
+        }
+    }
+
+    private int cardsLeft(long shoe) {
+        return infiniteDeck ? 13 : DeckComposition.total(shoe);
+    }
+
+    private double probability(long shoe, int rank, int cards) {
+        if (infiniteDeck) {
+            return (rank == 10 ? 4 : 1) / 13.0;
+        }
+        return DeckComposition.count(shoe, rank) / (double) cards;
+    }
+
+    private long draw(long shoe, int rank) {
+        return infiniteDeck ? shoe : DeckComposition.remove(shoe, rank);
+    }
+
+    public int size() {
+        return memo.size();
+    }
+
+    public double hitRate() {
+        return queries == 0 ? 0 : 1 - misses / (double) queries;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d positions, %.1f%% query hit rate, %d resets", memo.size(), 100 * hitRate(),
+                memo.evictions());
+    }
+}
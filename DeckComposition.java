@@ -0,0 +1,89 @@
+// DeckComposition.java
+// Blackjack rank counts of a shoe packed into one long
+
+// Blackjack only cares about ten ranks: 1 = Ace, 2..9, and 10 for every ten-valued card.
+// Ranks 1..9 take six bits each (up to 63 cards, enough for 8 decks' 32), tens take the
+// top eight bits (up to 255, enough for 8 decks' 128). The packed value doubles as a
+// compact hash key for solver memo tables.
+public final class DeckComposition {
+    public static final long EMPTY = 0L;
+    public static final int MAX_DECKS = 8;
+
+    private static final int TEN_SHIFT = 54;
+
+    private DeckComposition() {
+    }
+
+    // Full composition of a shoe of the given number of 52-card decks
+    public static long ofDecks(int decks) {
+        if (decks < 1 || decks > MAX_DECKS) {
+            throw new IllegalArgumentException("Expected 1 to " + MAX_DECKS + " decks, got " + decks);
+        }
+        long comp = EMPTY;
+        for (int rank = 1; rank <= 9; rank++) {
+            comp = add(comp, rank, 4 * decks);
+        }
+        return add(comp, 10, 16 * decks);
+    }
+
+    // Composition of the cards in a single-deck CardSet
+    public static long ofCards(long cards) {
+        long comp = EMPTY;
+        for (int rankIndex = 0; rankIndex < 13; rankIndex++) {
+            comp = add(comp, rankOf(rankIndex), CardSet.rankCount(cards, rankIndex));
+        }
+        return comp;
+    }
+
+    // Blackjack rank (1 = Ace ... 10) of a PokerEvaluator card code
+    public static int rankOf(int code) {
+        int rankIndex = code % 13;
+        return rankIndex == 12 ? 1 : Math.min(rankIndex + 2, 10);
+    }
+
+    // Blackjack rank of a card rank (1 = Ace ... 13 = King)
+    public static int rankOfCardRank(int cardRank) {
+        return Math.min(cardRank, 10);
+    }
+
+    private static int shift(int rank) {
+        return rank == 10 ? TEN_SHIFT : 6 * (rank - 1);
+    }
+
+    private static long mask(int rank) {
+        return rank == 10 ? 0xFFL : 0x3FL;
+    }
+
+    public static int count(long comp, int rank) {
+        return (int) ((comp >>> shift(rank)) & mask(rank));
+    }
+
+    public static long add(long comp, int rank, int n) {
+        return comp + ((long) n << shift(rank));
+    }
+
+    // Take one card of a rank out; the caller must know one is present
+    public static long remove(long comp, int rank) {
+        return comp - (1L << shift(rank));
+    }
+
+    public static int total(long comp) {
+        int total = 0;
+        for (int rank = 1; rank <= 10; rank++) {
+            total += count(comp, rank);
+        }
+        return total;
+    }
+
+    // Readable dump, e.g. "A:4 2:4 ... T:16"
+    public static String toString(long comp) {
+        StringBuilder sb = new StringBuilder();
+        for (int rank = 1; rank <= 10; rank++) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(rank == 1 ? "A" : rank == 10 ? "T" : String.valueOf(rank)).append(':').append(count(comp, rank));
+        }
+        return sb.toString();
+    }
+}
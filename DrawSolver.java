@@ -0,0 +1,369 @@
+// DrawSolver.java
+// Five-card draw discard solver backed by a precomputed, memory-mapped strategy table
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// The value of a final hand is its showdown equity against a random five-card hand
+// (the share of all 2,598,960 hands it beats, ties counted half). The EV of a hold
+// option is the exact average of that value over every draw from the 47 unseen cards;
+// across the 32 options this is C(52,5) evaluations per starting hand.
+//
+// Hold options are 5-bit masks: bit i set = keep the i-th card. Table rows are
+// stored for the 134,459 suit-canonical hands with bits over the canonical hand's
+// cards in ascending code order; lookups translate back to the caller's card order.
+//
+// Table file: int magic, int version, int hand count, int reserved, then the sorted
+// canonical hands as longs, then 32 float EVs per hand.
+public final class DrawSolver {
+    public static final int HOLD_OPTIONS = 32;
+    public static final Path DEFAULT_TABLE = Paths.get(System.getProperty("cardsaga.drawTable", "draw_strategy.bin"));
+
+    private static final int MAGIC = 0x44524157; // "DRAW"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int LEAF_HANDS = 64;
+    // C(4, n): ways to pick the suits of n cards of one rank
+    private static final long[] CHOOSE_4 = {1, 4, 6, 4, 1};
+
+    private static volatile StrategyTable table;
+    private static volatile boolean tableChecked;
+
+    private DrawSolver() {
+    }
+
+    // Showdown value of each strength class, built on first use by solve() only, so
+    // lookups in a mapped table never pay for it
+    private static final class ClassValues {
+        static final float[] VALUE = classValues(classCounts());
+    }
+
+    // EV of every hold option for five card codes into values; bit i of the index = keep codes[i]
+    public static void holdValues(int[] codes, float[] values) {
+        long canonicalHand = canonicalHand(codes);
+        int positions = positions(codes, canonicalHand);
+        StrategyTable strategy = strategyTable();
+        int row = strategy != null ? strategy.index(canonicalHand) : -1;
+        float[] solved = row < 0 ? solve(canonicalHand) : null;
+        for (int hold = 0; hold < HOLD_OPTIONS; hold++) {
+            int canonicalHold = canonicalHold(hold, positions);
+            values[hold] = solved != null ? solved[canonicalHold] : strategy.value(row, canonicalHold);
+        }
+    }
+
+    // Hold option with the highest EV; bit i set = keep codes[i]
+    public static int bestHold(int[] codes) {
+        long canonicalHand = canonicalHand(codes);
+        int positions = positions(codes, canonicalHand);
+        StrategyTable strategy = strategyTable();
+        int row = strategy != null ? strategy.index(canonicalHand) : -1;
+        float[] solved = row < 0 ? solve(canonicalHand) : null;
+        int best = HOLD_OPTIONS - 1;
+        float bestValue = Float.NEGATIVE_INFINITY;
+        for (int hold = HOLD_OPTIONS - 1; hold >= 0; hold--) {
+            int canonicalHold = canonicalHold(hold, positions);
+            float value = solved != null ? solved[canonicalHold] : strategy.value(row, canonicalHold);
+            if (value > bestValue) {
+                best = hold;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+
+    private static long canonicalHand(int[] codes) {
+        long hand = CardSet.of(codes);
+        return HandCanonicalizer.relabel(hand, HandCanonicalizer.suitMap(hand, CardSet.EMPTY));
+    }
+
+    // Position of each caller card within the canonical hand's ascending order, three bits per card
+    private static int positions(int[] codes, long canonicalHand) {
+        int suitMap = HandCanonicalizer.suitMap(CardSet.of(codes), CardSet.EMPTY);
+        int positions = 0;
+        for (int i = 0; i < 5; i++) {
+            int code = HandCanonicalizer.mapCard(codes[i], suitMap);
+            positions |= Long.bitCount(canonicalHand & ((1L << code) - 1)) << (3 * i);
+        }
+        return positions;
+    }
+
+    // Hold option over the canonical hand's cards for one over the caller's cards
+    private static int canonicalHold(int hold, int positions) {
+        int canonicalHold = 0;
+        for (int i = 0; i < 5; i++) {
+            if ((hold & (1 << i)) != 0) {
+                canonicalHold |= 1 << ((positions >>> (3 * i)) & 7);
+            }
+        }
+        return canonicalHold;
+    }
+
+    // Exact EV of every hold option; bits over the hand's cards in ascending code order
+    public static float[] solve(long hand) {
+        int[] held = EquityCalculator.toCodes(hand);
+        int[] unseen = EquityCalculator.toCodes(CardSet.minus(CardSet.FULL_DECK, hand));
+        int[] cards = new int[5];
+        int[] index = new int[5];
+        float[] values = new float[HOLD_OPTIONS];
+        for (int hold = 0; hold < HOLD_OPTIONS; hold++) {
+            int kept = 0;
+            for (int i = 0; i < 5; i++) {
+                if ((hold & (1 << i)) != 0) {
+                    cards[kept++] = held[i];
+                }
+            }
+            values[hold] = (float) averageDraw(cards, kept, unseen, index);
+        }
+        return values;
+    }
+
+    // Average value over every way of filling cards[kept..4] from unseen
+    private static double averageDraw(int[] cards, int kept, int[] unseen, int[] index) {
+        int draw = 5 - kept;
+        int n = unseen.length;
+        for (int i = 0; i < draw; i++) {
+            index[i] = i;
+        }
+        double total = 0;
+        long count = 0;
+        while (true) {
+            for (int i = 0; i < draw; i++) {
+                cards[kept + i] = unseen[index[i]];
+            }
+            total += ClassValues.VALUE[PokerEvaluator.evaluateClass(cards[0], cards[1], cards[2], cards[3], cards[4])];
+            count++;
+            // Advance to the next combination in lexicographic order
+            int i = draw - 1;
+            while (i >= 0 && index[i] == n - draw + i) {
+                i--;
+            }
+            if (i < 0) {
+                return total / count;
+            }
+            index[i]++;
+            for (int j = i + 1; j < draw; j++) {
+                index[j] = index[j - 1] + 1;
+            }
+        }
+    }
+
+    private static float[] classValues(long[] counts) {
+        float[] values = new float[counts.length];
+        long below = 0;
+        for (int c = 0; c < counts.length; c++) {
+            values[c] = (float) ((below + counts[c] / 2.0) / HandEnumerator.TOTAL_HANDS);
+            below += counts[c];
+        }
+        return values;
+    }
+
+    // Hands in each strength class, counted per rank multiset rather than by enumerating
+    // every hand: a multiset's suit assignments number the product of C(4, n) over its
+    // ranks, four of them flushes when all five ranks differ
+    static long[] classCounts() {
+        long[] counts = new long[PokerEvaluator.CLASS_COUNT];
+        countClasses(new int[13], 0, 5, counts);
+        return counts;
+    }
+
+    private static void countClasses(int[] ranks, int rank, int left, long[] counts) {
+        if (rank == 13) {
+            if (left > 0) {
+                return;
+            }
+            int[] cards = new int[5];
+            int n = 0;
+            int distinct = 0;
+            long ways = 1;
+            for (int r = 0; r < 13; r++) {
+                for (int suit = 0; suit < ranks[r]; suit++) {
+                    cards[n++] = suit * 13 + r;
+                }
+                distinct += ranks[r] > 0 ? 1 : 0;
+                ways *= CHOOSE_4[ranks[r]];
+            }
+            if (distinct == 5) {
+                // Five distinct ranks: every card above is a spade; one off-suit card breaks the flush
+                counts[PokerEvaluator.evaluateClass(cards[0], cards[1], cards[2], cards[3], cards[4])] += 4;
+                cards[4] += 13;
+                ways -= 4;
+            }
+            counts[PokerEvaluator.evaluateClass(cards[0], cards[1], cards[2], cards[3], cards[4])] += ways;
+            return;
+        }
+        for (int count = 0; count <= Math.min(4, left); count++) {
+            ranks[rank] = count;
+            countClasses(ranks, rank + 1, left - count, counts);
+        }
+        ranks[rank] = 0;
+    }
+
+    // The mapped default table, or null when it has not been generated
+    public static StrategyTable strategyTable() {
+        if (!tableChecked) {
+            synchronized (DrawSolver.class) {
+                if (!tableChecked) {
+                    if (Files.isReadable(DEFAULT_TABLE)) {
+                        try {
+                            table = StrategyTable.open(DEFAULT_TABLE);
+                        } catch (IOException | IllegalStateException e) {
+                            System.err.println("Draw strategy table not loaded: " + e.getMessage());
+                        }
+                    }
+                    tableChecked = true;
+                }
+            }
+        }
+        return table;
+    }
+
+    // Every suit-canonical five-card hand, ascending
+    static long[] canonicalHands() {
+        long[] hands = new long[HandEnumerator.TOTAL_HANDS];
+        int n = 0;
+        for (int c0 = 0; c0 < 52; c0++) {
+            for (int c1 = c0 + 1; c1 < 52; c1++) {
+                for (int c2 = c1 + 1; c2 < 52; c2++) {
+                    for (int c3 = c2 + 1; c3 < 52; c3++) {
+                        for (int c4 = c3 + 1; c4 < 52; c4++) {
+                            hands[n++] = HandCanonicalizer.canonical(CardSet.of(c0, c1, c2, c3, c4)).hand;
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.stream(hands).distinct().sorted().toArray();
+    }
+
+    // Solve the given canonical hands in parallel and write them as a table file
+    static void writeTable(Path path, long[] hands) throws IOException {
+        float[] values = new float[hands.length * HOLD_OPTIONS];
+        ForkJoinPool.commonPool().invoke(new SolveTask(hands, values, 0, hands.length));
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + hands.length * (8 + 4 * HOLD_OPTIONS))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(hands.length).putInt(0);
+        for (long hand : hands) {
+            buffer.putLong(hand);
+        }
+        for (float value : values) {
+            buffer.putFloat(value);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static final class SolveTask extends RecursiveAction {
+        private final long[] hands;
+        private final float[] values;
+        private final int from;
+        private final int to;
+
+        SolveTask(long[] hands, float[] values, int from, int to) {
+            this.hands = hands;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_HANDS) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SolveTask(hands, values, from, mid), new SolveTask(hands, values, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                System.arraycopy(solve(hands[i]), 0, values, i * HOLD_OPTIONS, HOLD_OPTIONS);
+            }
+        }
+    }
+
+    // Read-only view of a mapped table file
+    public static final class StrategyTable {
+        private final LongBuffer hands;
+        private final FloatBuffer values;
+        private final int count;
+
+        private StrategyTable(LongBuffer hands, FloatBuffer values, int count) {
+            this.hands = hands;
+            this.values = values;
+            this.count = count;
+        }
+
+        public static StrategyTable open(Path path) throws IOException {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalStateException("Not a version " + VERSION + " draw strategy table: " + path);
+            }
+            int count = buffer.getInt(8);
+            if (buffer.capacity() != HEADER_BYTES + (long) count * (8 + 4 * HOLD_OPTIONS)) {
+                throw new IllegalStateException("Truncated draw strategy table: " + path);
+            }
+            LongBuffer hands = buffer.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            FloatBuffer values = buffer.position(HEADER_BYTES + count * 8).slice().order(ByteOrder.LITTLE_ENDIAN)
+                    .asFloatBuffer();
+            return new StrategyTable(hands, values, count);
+        }
+
+        public int size() {
+            return count;
+        }
+
+        // Row of a canonical hand, or -1 if it is not in the table
+        public int index(long canonicalHand) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long hand = hands.get(mid);
+                if (hand < canonicalHand) {
+                    low = mid + 1;
+                } else if (hand > canonicalHand) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        // EV of a hold option of a row
+        public float value(int row, int hold) {
+            return values.get(row * HOLD_OPTIONS + hold);
+        }
+    }
+
+    // Generate the strategy table: java DrawSolver [path]; exits 1 if the counted class
+    // sizes disagree with an enumeration of every hand
+    public static void main(String[] args) throws IOException {
+        Path path = args.length > 0 ? Paths.get(args[0]) : DEFAULT_TABLE;
+        long start = System.nanoTime();
+        if (!Arrays.equals(classCounts(), HandEnumerator.enumerate(HandEnumerator.TABLE).classCounts)) {
+            System.err.println("Counted class sizes disagree with the enumeration");
+            System.exit(1);
+        }
+        long[] hands = canonicalHands();
+        writeTable(path, hands);
+        System.out.printf("Wrote %d hands to %s in %.1f s%n", hands.length, path, (System.nanoTime() - start) / 1e9);
+    }
+}
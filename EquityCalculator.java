@@ -0,0 +1,256 @@
+// EquityCalculator.java
+// Showdown equity of a five-card poker hand against an unknown opponent hand
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+
+// Monte Carlo mode: every worker samples opponent hands from the unseen cards with its
+// own SplittableRandom stream, in rounds of BATCH_TRIALS. Between rounds the merged
+// counts are checked against the target error and the time limit, so sampling stops
+// as soon as the estimate is tight enough.
+// Exact mode: every opponent hand from the unseen cards (C(47,5) = 1,533,939 for a
+// plain showdown) is evaluated once on the fork/join pool, split by its two lowest cards.
+public final class EquityCalculator {
+    // 95% two-sided normal quantile
+    private static final double Z_95 = 1.959964;
+    private static final int BATCH_TRIALS = 4096;
+    private static final int EXACT_LEAF_PREFIXES = 32;
+
+    // Defaults for the hand assessment dialog: ±0.5% or 40 ms, whichever comes first
+    public static final double ASSESSMENT_TARGET_ERROR = 0.005;
+    public static final long ASSESSMENT_MAX_TRIALS = 2_000_000;
+    public static final long ASSESSMENT_TIME_LIMIT_MILLIS = 40;
+
+    private EquityCalculator() {
+    }
+
+    // Win/tie/loss counts and their confidence intervals
+    public static final class Equity {
+        public final long wins;
+        public final long ties;
+        public final long losses;
+        public final boolean exact;
+
+        Equity(long wins, long ties, long losses, boolean exact) {
+            this.wins = wins;
+            this.ties = ties;
+            this.losses = losses;
+            this.exact = exact;
+        }
+
+        public long trials() {
+            return wins + ties + losses;
+        }
+
+        public double winRate() {
+            return (double) wins / trials();
+        }
+
+        public double tieRate() {
+            return (double) ties / trials();
+        }
+
+        public double lossRate() {
+            return (double) losses / trials();
+        }
+
+        // Pot share: wins plus half of the ties
+        public double equity() {
+            return (wins + 0.5 * ties) / trials();
+        }
+
+        // Half-width of the 95% interval of a sampled rate (0 for exact results)
+        public double halfWidth(double rate) {
+            return exact ? 0 : Z_95 * Math.sqrt(rate * (1 - rate) / trials());
+        }
+
+        // Half-width of the 95% interval of the equity (0 for exact results)
+        public double equityHalfWidth() {
+            if (exact) {
+                return 0;
+            }
+            double n = trials();
+            double meanSquare = (wins + 0.25 * ties) / n;
+            double mean = equity();
+            return Z_95 * Math.sqrt(Math.max(0, meanSquare - mean * mean) / n);
+        }
+
+        @Override
+        public String toString() {
+            if (exact) {
+                return String.format("Win %.3f%%, Tie %.3f%%, Loss %.3f%% (exact, %d hands)",
+                        100 * winRate(), 100 * tieRate(), 100 * lossRate(), trials());
+            }
+            return String.format("Win %.1f%% ± %.1f, Tie %.1f%% ± %.1f, Loss %.1f%% ± %.1f (%d samples)",
+                    100 * winRate(), 100 * halfWidth(winRate()), 100 * tieRate(), 100 * halfWidth(tieRate()),
+                    100 * lossRate(), 100 * halfWidth(lossRate()), trials());
+        }
+    }
+
+    // Sample until the equity's 95% half-width is at most targetError, or a limit is hit
+    public static Equity monteCarlo(long hero, long dead, double targetError, long maxTrials,
+                                    long timeLimitMillis, long seed) {
+        if (CardSet.size(hero) != 5) {
+            throw new IllegalArgumentException("Expected a five-card hand, got " + CardSet.size(hero));
+        }
+        int heroStrength = PokerEvaluator.evaluate(hero);
+        int[] unseen = toCodes(CardSet.minus(CardSet.FULL_DECK, CardSet.union(hero, dead)));
+        int workers = ForkJoinPool.getCommonPoolParallelism();
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Sampler> samplers = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            samplers.add(new Sampler(heroStrength, unseen.clone(), root.split()));
+        }
+        long deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+        long[] totals = new long[3];
+        Equity equity;
+        do {
+            for (Future<long[]> round : ForkJoinPool.commonPool().invokeAll(samplers)) {
+                long[] counts = join(round);
+                for (int i = 0; i < 3; i++) {
+                    totals[i] += counts[i];
+                }
+            }
+            equity = new Equity(totals[0], totals[1], totals[2], false);
+        } while (equity.equityHalfWidth() > targetError && equity.trials() < maxTrials
+                && System.nanoTime() < deadline);
+        return equity;
+    }
+
+    // Exact win/tie/loss counts over every opponent hand drawn from the unseen cards
+    public static Equity exact(long hero, long dead) {
+        if (CardSet.size(hero) != 5) {
+            throw new IllegalArgumentException("Expected a five-card hand, got " + CardSet.size(hero));
+        }
+        int[] unseen = toCodes(CardSet.minus(CardSet.FULL_DECK, CardSet.union(hero, dead)));
+        int pairs = unseen.length * (unseen.length - 1) / 2;
+        int[] first = new int[pairs];
+        int[] second = new int[pairs];
+        int n = 0;
+        for (int i = 0; i < unseen.length; i++) {
+            for (int j = i + 1; j < unseen.length; j++) {
+                first[n] = i;
+                second[n] = j;
+                n++;
+            }
+        }
+        long[] counts = ForkJoinPool.commonPool().invoke(
+                new ExactTask(PokerEvaluator.evaluate(hero), unseen, first, second, 0, pairs));
+        return new Equity(counts[0], counts[1], counts[2], true);
+    }
+
+    // Card codes of a set, ascending
+    static int[] toCodes(long set) {
+        int[] codes = new int[CardSet.size(set)];
+        int n = 0;
+        for (long s = set; s != 0; s = CardSet.rest(s)) {
+            codes[n++] = CardSet.first(s);
+        }
+        return codes;
+    }
+
+    static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Equity worker failed", e);
+        }
+    }
+
+    // One worker's thread-confined sampling state, reused across rounds
+    private static final class Sampler implements Callable<long[]> {
+        private final int heroStrength;
+        private final int[] unseen;
+        private final SplittableRandom random;
+        private final long[] counts = new long[3];
+
+        Sampler(int heroStrength, int[] unseen, SplittableRandom random) {
+            this.heroStrength = heroStrength;
+            this.unseen = unseen;
+            this.random = random;
+        }
+
+        @Override
+        public long[] call() {
+            counts[0] = 0;
+            counts[1] = 0;
+            counts[2] = 0;
+            int n = unseen.length;
+            for (int trial = 0; trial < BATCH_TRIALS; trial++) {
+                // Partial Fisher-Yates: the first five slots become a uniform random hand
+                for (int i = 0; i < 5; i++) {
+                    int j = i + random.nextInt(n - i);
+                    int swap = unseen[i];
+                    unseen[i] = unseen[j];
+                    unseen[j] = swap;
+                }
+                int villain = PokerEvaluator.evaluate(unseen[0], unseen[1], unseen[2], unseen[3], unseen[4]);
+                counts[heroStrength > villain ? 0 : heroStrength == villain ? 1 : 2]++;
+            }
+            return counts;
+        }
+    }
+
+    // Exact enumeration over a range of (lowest, second lowest) unseen-card prefixes
+    private static final class ExactTask extends RecursiveTask<long[]> {
+        private final int heroStrength;
+        private final int[] unseen;
+        private final int[] first;
+        private final int[] second;
+        private final int from;
+        private final int to;
+
+        ExactTask(int heroStrength, int[] unseen, int[] first, int[] second, int from, int to) {
+            this.heroStrength = heroStrength;
+            this.unseen = unseen;
+            this.first = first;
+            this.second = second;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > EXACT_LEAF_PREFIXES) {
+                int mid = (from + to) >>> 1;
+                ExactTask left = new ExactTask(heroStrength, unseen, first, second, from, mid);
+                left.fork();
+                long[] counts = new ExactTask(heroStrength, unseen, first, second, mid, to).compute();
+                long[] leftCounts = left.join();
+                for (int i = 0; i < 3; i++) {
+                    counts[i] += leftCounts[i];
+                }
+                return counts;
+            }
+            long wins = 0;
+            long ties = 0;
+            long losses = 0;
+            int n = unseen.length;
+            for (int p = from; p < to; p++) {
+                int c0 = unseen[first[p]];
+                int c1 = unseen[second[p]];
+                for (int i2 = second[p] + 1; i2 < n; i2++) {
+                    int c2 = unseen[i2];
+                    for (int i3 = i2 + 1; i3 < n; i3++) {
+                        int c3 = unseen[i3];
+                        for (int i4 = i3 + 1; i4 < n; i4++) {
+                            int villain = PokerEvaluator.evaluate(c0, c1, c2, c3, unseen[i4]);
+                            if (heroStrength > villain) {
+                                wins++;
+                            } else if (heroStrength == villain) {
+                                ties++;
+                            } else {
+                                losses++;
+                            }
+                        }
+                    }
+                }
+            }
+            return new long[] {wins, ties, losses};
+        }
+    }
+}
@@ -0,0 +1,89 @@
+// HandCanonicalizer.java
+// Suit-isomorphic canonical form of a hand plus optional dead cards
+
+// Poker analysis never depends on which suit is which, only on how cards share suits.
+// Each suit is treated as a column (hand ranks, dead ranks); sorting the four columns
+// and relabelling them as suits 0..3 gives one representative for all 4! relabellings.
+public final class HandCanonicalizer {
+    private HandCanonicalizer() {
+    }
+
+    // Canonical (hand, dead) pair, usable as a map key
+    public static final class Key {
+        public final long hand;
+        public final long dead;
+
+        Key(long hand, long dead) {
+            this.hand = hand;
+            this.dead = dead;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hand == other.hand && dead == other.dead;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hand * 0x9E3779B97F4A7C15L + dead);
+        }
+
+        @Override
+        public String toString() {
+            return CardSet.toString(hand) + (dead == CardSet.EMPTY ? "" : " dead " + CardSet.toString(dead));
+        }
+    }
+
+    public static Key canonical(long hand) {
+        return canonical(hand, CardSet.EMPTY);
+    }
+
+    public static Key canonical(long hand, long dead) {
+        int suitMap = suitMap(hand, dead);
+        return new Key(relabel(hand, suitMap), relabel(dead, suitMap));
+    }
+
+    // Canonical suit of each actual suit, two bits per suit (bits 2s..2s+1 for suit s)
+    public static int suitMap(long hand, long dead) {
+        // Column in the high bits, suit id in the low two bits to remember where it came from
+        long s0 = column(hand, dead, 0) << 2;
+        long s1 = column(hand, dead, 1) << 2 | 1;
+        long s2 = column(hand, dead, 2) << 2 | 2;
+        long s3 = column(hand, dead, 3) << 2 | 3;
+        // Five-comparator sorting network, descending
+        long t;
+        if (s0 < s1) { t = s0; s0 = s1; s1 = t; }
+        if (s2 < s3) { t = s2; s2 = s3; s3 = t; }
+        if (s0 < s2) { t = s0; s0 = s2; s2 = t; }
+        if (s1 < s3) { t = s1; s1 = s3; s3 = t; }
+        if (s1 < s2) { t = s1; s1 = s2; s2 = t; }
+        return (1 << (2 * (s1 & 3))) | (2 << (2 * (s2 & 3))) | (3 << (2 * (s3 & 3)));
+    }
+
+    // Card code after relabelling its suit with a suitMap
+    public static int mapCard(int code, int suitMap) {
+        int suit = code / 13;
+        return ((suitMap >>> (2 * suit)) & 3) * 13 + code % 13;
+    }
+
+    // CardSet after relabelling every suit with a suitMap
+    public static long relabel(long set, int suitMap) {
+        long result = CardSet.EMPTY;
+        for (int suit = 0; suit < 4; suit++) {
+            result |= (long) CardSet.suitMask(set, suit) << (13 * ((suitMap >>> (2 * suit)) & 3));
+        }
+        return result;
+    }
+
+    // Hand ranks in the high 13 bits, dead ranks in the low 13 bits
+    private static long column(long hand, long dead, int suit) {
+        return ((long) CardSet.suitMask(hand, suit) << 13) | CardSet.suitMask(dead, suit);
+    }
+}
@@ -0,0 +1,362 @@
+// HandEnumerator.java
+// Exhaustive fork/join enumeration of all C(52,5) = 2,598,960 five-card hands
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Splits the hand space by its two lowest cards (1,326 prefixes) across the common
+// fork/join pool. Each leaf tallies per-category and per-class counts, and when a
+// second evaluator is given, counts the hands on which the two disagree.
+public final class HandEnumerator {
+    public static final int TOTAL_HANDS = 2598960;
+
+    // Any five-card evaluator producing PokerEvaluator-style packed strengths
+    @FunctionalInterface
+    public interface Evaluator {
+        int evaluate(int c0, int c1, int c2, int c3, int c4);
+    }
+
+    // The lookup-table evaluator used by the games
+    public static final Evaluator TABLE = PokerEvaluator::evaluate;
+    // The game's original String-based evaluatePokerHand, on card codes; it decides the
+    // category only (its compareHighCards tie-break never ordered kickers soundly), so its
+    // strengths carry the category and no ranks
+    public static final Evaluator BASELINE = HandEnumerator::baselineStrength;
+    // Independent sort-and-count evaluator producing full strengths, to check kicker order
+    public static final Evaluator SORT_AND_COUNT = HandEnumerator::sortAndCountStrength;
+
+    // Prefix pairs (first, second) with first < second, indexed 0..1325
+    private static final int[] PREFIX_FIRST = new int[1326];
+    private static final int[] PREFIX_SECOND = new int[1326];
+    private static final int LEAF_PREFIXES = 16;
+
+    static {
+        int n = 0;
+        for (int i = 0; i < 52; i++) {
+            for (int j = i + 1; j < 52; j++) {
+                PREFIX_FIRST[n] = i;
+                PREFIX_SECOND[n] = j;
+                n++;
+            }
+        }
+    }
+
+    private HandEnumerator() {
+    }
+
+    // Result of one enumeration
+    public static final class Result {
+        public final long[] categoryCounts = new long[PokerEvaluator.ROYAL_FLUSH + 1];
+        public final long[] classCounts = new long[PokerEvaluator.CLASS_COUNT];
+        public long hands;
+        public long mismatches;
+        // CardSet of the first disagreement seen, or CardSet.EMPTY
+        public long firstMismatch = CardSet.EMPTY;
+
+        private void merge(Result other) {
+            for (int i = 0; i < categoryCounts.length; i++) {
+                categoryCounts[i] += other.categoryCounts[i];
+            }
+            for (int i = 0; i < classCounts.length; i++) {
+                classCounts[i] += other.classCounts[i];
+            }
+            hands += other.hands;
+            mismatches += other.mismatches;
+            if (firstMismatch == CardSet.EMPTY) {
+                firstMismatch = other.firstMismatch;
+            }
+        }
+
+        // Number of equivalence classes that occurred at least once
+        public int distinctClasses() {
+            int n = 0;
+            for (long count : classCounts) {
+                if (count > 0) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        // Category frequency table, one line per category from strongest down
+        public String frequencyTable() {
+            StringBuilder sb = new StringBuilder();
+            for (int category = PokerEvaluator.ROYAL_FLUSH; category >= PokerEvaluator.HIGH_CARD; category--) {
+                sb.append(String.format("%-16s %9d  %8.5f%%%n", PokerEvaluator.categoryName(category),
+                        categoryCounts[category], 100.0 * categoryCounts[category] / hands));
+            }
+            return sb.toString();
+        }
+    }
+
+    // Tally every hand with one evaluator
+    public static Result enumerate(Evaluator evaluator) {
+        return ForkJoinPool.commonPool().invoke(new Task(evaluator, null, false, 0, PREFIX_FIRST.length));
+    }
+
+    // Tally every hand with the expected evaluator and count disagreements with the candidate
+    public static Result compare(Evaluator expected, Evaluator candidate) {
+        return ForkJoinPool.commonPool().invoke(new Task(expected, candidate, false, 0, PREFIX_FIRST.length));
+    }
+
+    // Same, counting only hands on which the two disagree about the category
+    public static Result compareCategories(Evaluator expected, Evaluator candidate) {
+        return ForkJoinPool.commonPool().invoke(new Task(expected, candidate, true, 0, PREFIX_FIRST.length));
+    }
+
+    private static final class Task extends RecursiveTask<Result> {
+        private final Evaluator expected;
+        private final Evaluator candidate;
+        private final boolean categoriesOnly;
+        private final int from;
+        private final int to;
+
+        Task(Evaluator expected, Evaluator candidate, boolean categoriesOnly, int from, int to) {
+            this.expected = expected;
+            this.candidate = candidate;
+            this.categoriesOnly = categoriesOnly;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from > LEAF_PREFIXES) {
+                int mid = (from + to) >>> 1;
+                Task left = new Task(expected, candidate, categoriesOnly, from, mid);
+                left.fork();
+                Result result = new Task(expected, candidate, categoriesOnly, mid, to).compute();
+                result.merge(left.join());
+                return result;
+            }
+            Result result = new Result();
+            for (int p = from; p < to; p++) {
+                int c0 = PREFIX_FIRST[p];
+                int c1 = PREFIX_SECOND[p];
+                for (int c2 = c1 + 1; c2 < 52; c2++) {
+                    for (int c3 = c2 + 1; c3 < 52; c3++) {
+                        for (int c4 = c3 + 1; c4 < 52; c4++) {
+                            int strength = expected.evaluate(c0, c1, c2, c3, c4);
+                            result.categoryCounts[PokerEvaluator.category(strength)]++;
+                            int classIndex = PokerEvaluator.classIndex(strength);
+                            if (classIndex >= 0) {
+                                result.classCounts[classIndex]++;
+                            }
+                            if (candidate != null && disagree(candidate.evaluate(c0, c1, c2, c3, c4), strength)) {
+                                if (result.mismatches++ == 0) {
+                                    result.firstMismatch = CardSet.of(c0, c1, c2, c3, c4);
+                                }
+                            }
+                        }
+                    }
+                }
+                result.hands += (51 - c1) * (50 - c1) * (49 - c1) / 6;
+            }
+            return result;
+        }
+
+        private boolean disagree(int a, int b) {
+            return categoriesOnly ? PokerEvaluator.category(a) != PokerEvaluator.category(b) : a != b;
+        }
+    }
+
+    // Baseline evaluator: the original evaluatePokerHand and getPokerHandRank, with cards as
+    // codes instead of Card objects; rank 1 = Ace ... 13 = King as in Card.getRank()
+    static int baselineStrength(int c0, int c1, int c2, int c3, int c4) {
+        List<Integer> hand = new ArrayList<>(Arrays.asList(c0, c1, c2, c3, c4));
+        return getPokerHandRank(evaluatePokerHand(hand)) << 20;
+    }
+
+    private static int baselineRank(int code) {
+        return PokerEvaluator.cardRank(code % 13);
+    }
+
+    private static String evaluatePokerHand(List<Integer> hand) {
+        Collections.sort(hand, (c1, c2) -> {
+            int rank1 = baselineRank(c1) == 1 ? 14 : baselineRank(c1);
+            int rank2 = baselineRank(c2) == 1 ? 14 : baselineRank(c2);
+            return rank1 - rank2;
+        });
+        boolean isFlush = isFlush(hand);
+        boolean isStraight = isStraight(hand);
+        if (isFlush && isStraight) {
+            if (baselineRank(hand.get(0)) == 10 && baselineRank(hand.get(1)) == 11 &&
+                    baselineRank(hand.get(2)) == 12 && baselineRank(hand.get(3)) == 13 &&
+                    baselineRank(hand.get(4)) == 1) {
+                return "Royal Flush";
+            }
+            return "Straight Flush";
+        }
+        Map<Integer, Integer> rankCounts = new HashMap<>();
+        for (int card : hand) {
+            int rank = baselineRank(card) == 1 ? 14 : baselineRank(card);
+            rankCounts.put(rank, rankCounts.getOrDefault(rank, 0) + 1);
+        }
+        if (rankCounts.containsValue(4)) {
+            return "Four of A Kind";
+        }
+        if (rankCounts.containsValue(3) && rankCounts.containsValue(2)) {
+            return "Full House";
+        }
+        if (isFlush) {
+            return "Flush";
+        }
+        if (isStraight) {
+            return "Straight";
+        }
+        if (rankCounts.containsValue(3)) {
+            return "Three of A Kind";
+        }
+        int pairCount = 0;
+        for (int count : rankCounts.values()) {
+            if (count == 2) {
+                pairCount++;
+            }
+        }
+        if (pairCount == 2) {
+            return "Two Pairs";
+        }
+        if (rankCounts.containsValue(2)) {
+            return "Pair";
+        }
+        return "High Card";
+    }
+
+    private static boolean isFlush(List<Integer> hand) {
+        int suit = hand.get(0) / 13;
+        for (int card : hand) {
+            if (card / 13 != suit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isStraight(List<Integer> hand) {
+        List<Integer> sortedHand = new ArrayList<>(hand);
+        Collections.sort(sortedHand, (c1, c2) -> {
+            int rank1 = baselineRank(c1) == 1 ? 14 : baselineRank(c1);
+            int rank2 = baselineRank(c2) == 1 ? 14 : baselineRank(c2);
+            return rank1 - rank2;
+        });
+        if (baselineRank(sortedHand.get(0)) == 2 &&
+                baselineRank(sortedHand.get(1)) == 3 &&
+                baselineRank(sortedHand.get(2)) == 4 &&
+                baselineRank(sortedHand.get(3)) == 5 &&
+                baselineRank(sortedHand.get(4)) == 1) {
+            return true;
+        }
+        for (int i = 0; i < sortedHand.size() - 1; i++) {
+            int currentRank = baselineRank(sortedHand.get(i)) == 1 ? 14 : baselineRank(sortedHand.get(i));
+            int nextRank = baselineRank(sortedHand.get(i + 1)) == 1 ? 14 : baselineRank(sortedHand.get(i + 1));
+            if (nextRank - currentRank != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int getPokerHandRank(String handType) {
+        switch (handType) {
+            case "Royal Flush": return 10;
+            case "Straight Flush": return 9;
+            case "Four of A Kind": return 8;
+            case "Full House": return 7;
+            case "Flush": return 6;
+            case "Straight": return 5;
+            case "Three of A Kind": return 4;
+            case "Two Pairs": return 3;
+            case "Pair": return 2;
+            default: return 1; // High Card
+        }
+    }
+
+    // Sort-and-count evaluator written alongside the lookup tables (Royal Flush = 10-J-Q-K-A
+    // of one suit, A-2-3-4-5 counts as a five-high straight), ordering kickers by group
+    // size, then rank. Not an independent oracle for categories; BASELINE is.
+    static int sortAndCountStrength(int c0, int c1, int c2, int c3, int c4) {
+        int[] cards = {c0, c1, c2, c3, c4};
+        int[] counts = new int[13];
+        boolean flush = true;
+        for (int card : cards) {
+            counts[card % 13]++;
+            flush &= card / 13 == c0 / 13;
+        }
+        List<Integer> groups = new ArrayList<>();
+        for (int rank = 0; rank < 13; rank++) {
+            if (counts[rank] > 0) {
+                groups.add(rank);
+            }
+        }
+        Collections.sort(groups, (r1, r2) -> counts[r1] != counts[r2] ? counts[r2] - counts[r1] : r2 - r1);
+        int[] ranks = new int[5];
+        for (int i = 0; i < groups.size(); i++) {
+            ranks[i] = groups.get(i);
+        }
+        boolean straight = false;
+        if (groups.size() == 5) {
+            int[] sorted = Arrays.copyOf(ranks, 5);
+            Arrays.sort(sorted);
+            if (sorted[4] - sorted[0] == 4) {
+                straight = true;
+            } else if (sorted[4] == 12 && sorted[3] == 3) {
+                straight = true;
+                ranks[0] = 3;
+            }
+        }
+        if (flush && straight) {
+            return PokerEvaluator.pack(ranks[0] == 12 ? PokerEvaluator.ROYAL_FLUSH : PokerEvaluator.STRAIGHT_FLUSH, ranks, 1);
+        }
+        int largest = counts[ranks[0]];
+        int second = groups.size() > 1 ? counts[ranks[1]] : 0;
+        if (largest == 4) {
+            return PokerEvaluator.pack(PokerEvaluator.FOUR_OF_A_KIND, ranks, 2);
+        }
+        if (largest == 3 && second == 2) {
+            return PokerEvaluator.pack(PokerEvaluator.FULL_HOUSE, ranks, 2);
+        }
+        if (flush) {
+            return PokerEvaluator.pack(PokerEvaluator.FLUSH, ranks, 5);
+        }
+        if (straight) {
+            return PokerEvaluator.pack(PokerEvaluator.STRAIGHT, ranks, 1);
+        }
+        if (largest == 3) {
+            return PokerEvaluator.pack(PokerEvaluator.THREE_OF_A_KIND, ranks, 3);
+        }
+        if (largest == 2) {
+            return PokerEvaluator.pack(second == 2 ? PokerEvaluator.TWO_PAIRS : PokerEvaluator.PAIR, ranks, groups.size());
+        }
+        return PokerEvaluator.pack(PokerEvaluator.HIGH_CARD, ranks, 5);
+    }
+
+    // Print the frequency table and check the lookup tables against the baseline evaluator
+    // for categories and the sort-and-count evaluator for kickers; exits 1 on any mismatch
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        Result table = enumerate(TABLE);
+        long tableNanos = System.nanoTime() - start;
+        System.out.print(table.frequencyTable());
+        System.out.printf("%d hands, %d classes in %.1f ms%n", table.hands, table.distinctClasses(), tableNanos / 1e6);
+        start = System.nanoTime();
+        Result baseline = compareCategories(TABLE, BASELINE);
+        report("Baseline evaluatePokerHand vs table categories", baseline, start);
+        start = System.nanoTime();
+        Result kickers = compare(SORT_AND_COUNT, TABLE);
+        report("Sort-and-count vs table strengths", kickers, start);
+        if (baseline.mismatches + kickers.mismatches != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void report(String check, Result diff, long start) {
+        System.out.printf("%s: %d mismatches in %.1f ms%s%n", check, diff.mismatches,
+                (System.nanoTime() - start) / 1e6,
+                diff.mismatches == 0 ? "" : ", first " + CardSet.toString(diff.firstMismatch));
+    }
+}
@@ -0,0 +1,298 @@
+// PlayerHands.java
+// Blackjack player state: up to BlackjackRules.MAX_HANDS hands, each with cards, bet and status
+
+// Everything lives in flat primitive arrays sized once for MAX_HANDS hands, so an instance
+// is reset and reused round after round: a simulator table or the Swing game holds one
+// and allocates nothing per round. Each hand keeps its score incrementally as a running
+// total with Aces counted 11 plus the number of those Aces still counted 11; a card adds
+// its value and, if that passes 21 while an Ace still counts 11, that Ace drops to 1. A hit
+// is O(1) and never rescans the hand.
+//
+// Hands are played left to right. Splitting moves the second card of the active hand into
+// a new hand right after it; a hand holding a single card waits for its second (see
+// needsCard()) before the player decides. A hand ends on stand, bust, double, surrender or
+// reaching 21, and split Aces end after their one card.
+public final class PlayerHands {
+    public static final int MAX_HANDS = BlackjackRules.MAX_HANDS;
+    // A hand stops taking cards at 21, so at most 21 Aces and one more card
+    public static final int MAX_CARDS = 22;
+    // Smallest bet a table should stake: bets are whole units and surrender loses exactly
+    // half, so a bet must be even to be surrendered
+    public static final int UNIT_BET = 2;
+
+    public enum Status {PLAYING, STOOD, DOUBLED, BUSTED, SURRENDERED}
+
+    private static final Status[] STATUSES = Status.values();
+    // Rank letter by card code % 13
+    private static final String RANK_NAMES = "23456789TJQKA";
+
+    // Card codes, MAX_CARDS per hand
+    private final byte[] codes = new byte[MAX_HANDS * MAX_CARDS];
+    private final int[] cards = new int[MAX_HANDS];
+    private final int[] totals = new int[MAX_HANDS];
+    private final int[] softAces = new int[MAX_HANDS];
+    private final int[] bets = new int[MAX_HANDS];
+    private final byte[] status = new byte[MAX_HANDS];
+    private final boolean[] splitAces = new boolean[MAX_HANDS];
+    private int hands;
+    // Hand being played, or hands when every hand is finished
+    private int active;
+
+    public PlayerHands() {
+        reset(1);
+    }
+
+    // Start a round with one empty hand carrying the given bet
+    public void reset(int bet) {
+        if (bet < 1) {
+            throw new IllegalArgumentException("Expected a positive bet, got " + bet);
+        }
+        hands = 1;
+        active = 0;
+        clear(0, bet);
+    }
+
+    private void clear(int hand, int bet) {
+        cards[hand] = 0;
+        totals[hand] = 0;
+        softAces[hand] = 0;
+        bets[hand] = bet;
+        status[hand] = (byte) Status.PLAYING.ordinal();
+        splitAces[hand] = false;
+    }
+
+    // Blackjack: Give the active hand a card (see PokerEvaluator.cardCode); returns its new total
+    public int add(int code) {
+        int hand = requireActive();
+        int rank = DeckComposition.rankOf(code);
+        codes[hand * MAX_CARDS + cards[hand]++] = (byte) code;
+        int total = totals[hand] + (rank == 1 ? 11 : rank);
+        if (rank == 1) {
+            softAces[hand]++;
+        }
+        if (total > 21 && softAces[hand] > 0) {
+            total -= 10;
+            softAces[hand]--;
+        }
+        totals[hand] = total;
+        if (total > 21) {
+            finish(Status.BUSTED);
+        } else if (total == 21 || (splitAces[hand] && cards[hand] == 2)) {
+            finish(Status.STOOD);
+        }
+        return total;
+    }
+
+    // Blackjack: Active hand stands
+    public void stand() {
+        requireDecision();
+        finish(Status.STOOD);
+    }
+
+    // Blackjack: Double the active hand's bet and give it its one last card
+    public int doubleDown(int code) {
+        int hand = requireDecision();
+        bets[hand] *= 2;
+        int total = add(code);
+        if (total < 21) {
+            finish(Status.DOUBLED);
+        } else if (total == 21) {
+            status[hand] = (byte) Status.DOUBLED.ordinal();
+        }
+        return total;
+    }
+
+    // Blackjack: Split the active pair; the new hand gets the same bet and plays next
+    public void split() {
+        int hand = requireDecision();
+        if (hands == MAX_HANDS || !isPair(hand)) {
+            throw new IllegalStateException("Hand " + hand + " cannot be split");
+        }
+        for (int h = hands; h > hand + 1; h--) {
+            System.arraycopy(codes, (h - 1) * MAX_CARDS, codes, h * MAX_CARDS, cards[h - 1]);
+            cards[h] = cards[h - 1];
+            totals[h] = totals[h - 1];
+            softAces[h] = softAces[h - 1];
+            bets[h] = bets[h - 1];
+            status[h] = status[h - 1];
+            splitAces[h] = splitAces[h - 1];
+        }
+        hands++;
+        int first = code(hand, 0);
+        int second = code(hand, 1);
+        boolean aces = rank(hand, 1) == 1;
+        int bet = bets[hand];
+        clear(hand, bet);
+        clear(hand + 1, bet);
+        splitAces[hand] = aces;
+        splitAces[hand + 1] = aces;
+        add(first);
+        active = hand + 1;
+        add(second);
+        active = hand;
+    }
+
+    // Blackjack: Give up the active hand for half its bet
+    public void surrender() {
+        int hand = requireDecision();
+        if (bets[hand] % 2 != 0) {
+            throw new IllegalStateException("Cannot surrender half of an odd bet of " + bets[hand]);
+        }
+        finish(Status.SURRENDERED);
+    }
+
+    private void finish(Status result) {
+        status[active] = (byte) result.ordinal();
+        active++;
+    }
+
+    private int requireActive() {
+        if (active == hands) {
+            throw new IllegalStateException("Every hand is finished");
+        }
+        return active;
+    }
+
+    private int requireDecision() {
+        int hand = requireActive();
+        if (cards[hand] < 2) {
+            throw new IllegalStateException("Hand " + hand + " is waiting for its second card");
+        }
+        return hand;
+    }
+
+    // Whether the active hand must be dealt a card before the player can act
+    public boolean needsCard() {
+        return active < hands && cards[active] < 2;
+    }
+
+    // Whether every hand is finished
+    public boolean done() {
+        return active == hands;
+    }
+
+    // Index of the hand being played, or hands() when done
+    public int active() {
+        return active;
+    }
+
+    public int hands() {
+        return hands;
+    }
+
+    public int cards(int hand) {
+        return cards[hand];
+    }
+
+    public int code(int hand, int card) {
+        return codes[hand * MAX_CARDS + card];
+    }
+
+    // Blackjack rank of a card, 1 = Ace ... 10 = any ten-valued card
+    public int rank(int hand, int card) {
+        return DeckComposition.rankOf(code(hand, card));
+    }
+
+    // Best total, Aces counting 11 where that does not bust
+    public int total(int hand) {
+        return totals[hand];
+    }
+
+    // Total with every Ace counted 1
+    public int hard(int hand) {
+        return totals[hand] - 10 * softAces[hand];
+    }
+
+    public boolean soft(int hand) {
+        return softAces[hand] > 0;
+    }
+
+    public int bet(int hand) {
+        return bets[hand];
+    }
+
+    public Status status(int hand) {
+        return STATUSES[status[hand]];
+    }
+
+    // Blackjack rank of an unplayed pair, or 0
+    public int pairRank(int hand) {
+        return isPair(hand) ? rank(hand, 0) : 0;
+    }
+
+    private boolean isPair(int hand) {
+        return cards[hand] == 2 && rank(hand, 0) == rank(hand, 1);
+    }
+
+    // Two-card 21 on the unsplit first hand
+    public boolean isNatural() {
+        return hands == 1 && cards[0] == 2 && totals[0] == 21;
+    }
+
+    // Whether the active hand may take each extra action under the rules
+    public boolean canDouble(BlackjackRules rules) {
+        return !done() && cards[active] == 2 && !splitAces[active] && rules.doubleAllowed
+                && (hands == 1 || rules.doubleAfterSplit);
+    }
+
+    public boolean canSplit(BlackjackRules rules) {
+        return !done() && hands < rules.maxHands && !splitAces[active] && isPair(active);
+    }
+
+    public boolean canSurrender(BlackjackRules rules) {
+        return !done() && hands == 1 && cards[0] == 2 && bets[0] % 2 == 0 && rules.lateSurrender;
+    }
+
+    // Blackjack: Net result of a finished hand against the dealer's final total, in bet units
+    public int result(int hand, int dealerTotal) {
+        switch (status(hand)) {
+            case PLAYING:
+                throw new IllegalStateException("Hand " + hand + " is still in play");
+            case BUSTED:
+                return -bets[hand];
+            case SURRENDERED:
+                return -bets[hand] / 2;
+            default:
+                int total = totals[hand];
+                return dealerTotal > 21 || total > dealerTotal ? bets[hand] : total < dealerTotal ? -bets[hand] : 0;
+        }
+    }
+
+    // Net result of every hand
+    public int result(int dealerTotal) {
+        int net = 0;
+        for (int hand = 0; hand < hands; hand++) {
+            net += result(hand, dealerTotal);
+        }
+        return net;
+    }
+
+    // Whether any hand still needs the dealer's hand played out
+    public boolean anyStanding() {
+        for (int hand = 0; hand < hands; hand++) {
+            Status s = status(hand);
+            if (s == Status.STOOD || s == Status.DOUBLED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // e.g. ">[A 7] 18 soft, bet 1, PLAYING;  [A 9] 20 soft, bet 1, STOOD", '>' marking the active hand
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int hand = 0; hand < hands; hand++) {
+            if (hand > 0) {
+                sb.append("; ");
+            }
+            sb.append(hand == active ? '>' : ' ').append('[');
+            for (int i = 0; i < cards[hand]; i++) {
+                sb.append(i == 0 ? "" : " ").append(RANK_NAMES.charAt(code(hand, i) % 13));
+            }
+            sb.append("] ").append(totals[hand]).append(soft(hand) ? " soft" : "").append(", bet ")
+                    .append(bets[hand]).append(", ").append(status(hand));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,403 @@
+// PokerEvaluator.java
+// Table-driven poker hand evaluator shared by the backend and the Swing front end
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Maps five (or seven, best five of) cards to one packed int strength without sorting or allocating.
+// Strength layout: category << 20 | five 4-bit rank indexes, most significant first,
+// so two strengths compare correctly with plain int comparison.
+public final class PokerEvaluator {
+    // Hand categories (same numbering as getPokerHandRank)
+    public static final int HIGH_CARD = 1;
+    public static final int PAIR = 2;
+    public static final int TWO_PAIRS = 3;
+    public static final int THREE_OF_A_KIND = 4;
+    public static final int STRAIGHT = 5;
+    public static final int FLUSH = 6;
+    public static final int FULL_HOUSE = 7;
+    public static final int FOUR_OF_A_KIND = 8;
+    public static final int STRAIGHT_FLUSH = 9;
+    public static final int ROYAL_FLUSH = 10;
+
+    private static final String[] HAND_NAMES = {
+        "", "High Card", "Pair", "Two Pairs", "Three of A Kind", "Straight",
+        "Flush", "Full House", "Four of A Kind", "Straight Flush", "Royal Flush"
+    };
+
+    // Per-rank keys whose sums are unique for every five-card rank multiset
+    private static final int[] RANK_KEYS = {
+        0, 1, 5, 22, 94, 312, 992, 2422, 5624, 12522, 19998, 43258, 79415
+    };
+    private static final int MAX_RANK_KEY = 4 * RANK_KEYS[12] + RANK_KEYS[11];
+
+    // Per-card lookups indexed by card code
+    private static final int[] CARD_KEY = new int[52];
+    private static final int[] CARD_BIT = new int[52];
+    private static final int[] SUIT_BIT = new int[52];
+
+    // Strength by rank-key sum (non-flush) and by 13-bit rank mask (flush)
+    private static final int[] RANK_TABLE = new int[MAX_RANK_KEY + 1];
+    private static final int[] FLUSH_TABLE = new int[1 << 13];
+
+    // Every distinct five-card strength in ascending order (the 7,462 equivalence classes)
+    public static final int CLASS_COUNT = 7462;
+    private static final int[] CLASS_STRENGTHS;
+    // Same lookups as RANK_TABLE and FLUSH_TABLE, but yielding the class index
+    private static final char[] RANK_CLASS_TABLE = new char[MAX_RANK_KEY + 1];
+    private static final char[] FLUSH_CLASS_TABLE = new char[1 << 13];
+
+    static {
+        for (int code = 0; code < 52; code++) {
+            CARD_KEY[code] = RANK_KEYS[code % 13];
+            CARD_BIT[code] = 1 << (code % 13);
+            SUIT_BIT[code] = 1 << (code / 13);
+        }
+        fillRankTable(new int[13], 0, 5);
+        for (int mask = 0; mask < FLUSH_TABLE.length; mask++) {
+            if (Integer.bitCount(mask) == 5) {
+                FLUSH_TABLE[mask] = flushStrength(mask);
+            }
+        }
+        CLASS_STRENGTHS = IntStream.concat(Arrays.stream(RANK_TABLE), Arrays.stream(FLUSH_TABLE))
+                .filter(strength -> strength != 0).distinct().sorted().toArray();
+        if (CLASS_STRENGTHS.length != CLASS_COUNT) {
+            throw new IllegalStateException("Expected " + CLASS_COUNT + " classes, got " + CLASS_STRENGTHS.length);
+        }
+        for (int key = 0; key < RANK_TABLE.length; key++) {
+            if (RANK_TABLE[key] != 0) {
+                RANK_CLASS_TABLE[key] = (char) classIndex(RANK_TABLE[key]);
+            }
+        }
+        for (int mask = 0; mask < FLUSH_TABLE.length; mask++) {
+            if (FLUSH_TABLE[mask] != 0) {
+                FLUSH_CLASS_TABLE[mask] = (char) classIndex(FLUSH_TABLE[mask]);
+            }
+        }
+    }
+
+    private PokerEvaluator() {
+    }
+
+    // Card code: suit * 13 + rank index, where rank index 0 is Two and 12 is Ace
+    public static int cardCode(int suit, int rank) {
+        return suit * 13 + rankIndex(rank);
+    }
+
+    // Convert a card rank (1 = Ace ... 13 = King) to its rank index
+    public static int rankIndex(int rank) {
+        return rank == 1 ? 12 : rank - 2;
+    }
+
+    // Convert a rank index back to a card rank (1 = Ace ... 13 = King)
+    public static int cardRank(int rankIndex) {
+        return rankIndex == 12 ? 1 : rankIndex + 2;
+    }
+
+    // Suit index of the suit symbols used by Card
+    public static int suitIndex(String suit) {
+        switch (suit) {
+            case "♠": return 0;
+            case "♥": return 1;
+            case "♦": return 2;
+            case "♣": return 3;
+            default: throw new IllegalArgumentException("Unknown suit: " + suit);
+        }
+    }
+
+    // Evaluate five distinct card codes
+    public static int evaluate(int c0, int c1, int c2, int c3, int c4) {
+        if ((SUIT_BIT[c0] & SUIT_BIT[c1] & SUIT_BIT[c2] & SUIT_BIT[c3] & SUIT_BIT[c4]) != 0) {
+            return FLUSH_TABLE[CARD_BIT[c0] | CARD_BIT[c1] | CARD_BIT[c2] | CARD_BIT[c3] | CARD_BIT[c4]];
+        }
+        return RANK_TABLE[CARD_KEY[c0] + CARD_KEY[c1] + CARD_KEY[c2] + CARD_KEY[c3] + CARD_KEY[c4]];
+    }
+
+    // Equivalence class (0 = weakest ... CLASS_COUNT - 1 = royal flush) of five distinct card codes
+    public static int evaluateClass(int c0, int c1, int c2, int c3, int c4) {
+        if ((SUIT_BIT[c0] & SUIT_BIT[c1] & SUIT_BIT[c2] & SUIT_BIT[c3] & SUIT_BIT[c4]) != 0) {
+            return FLUSH_CLASS_TABLE[CARD_BIT[c0] | CARD_BIT[c1] | CARD_BIT[c2] | CARD_BIT[c3] | CARD_BIT[c4]];
+        }
+        return RANK_CLASS_TABLE[CARD_KEY[c0] + CARD_KEY[c1] + CARD_KEY[c2] + CARD_KEY[c3] + CARD_KEY[c4]];
+    }
+
+    // Evaluate the best five of seven distinct card codes (two hole cards plus the board)
+    public static int evaluate7(int c0, int c1, int c2, int c3, int c4, int c5, int c6) {
+        return SevenCardTables.evaluate(c0, c1, c2, c3, c4, c5, c6);
+    }
+
+    // Evaluate a five- or seven-card CardSet directly from its bits
+    public static int evaluate(long cards) {
+        int size = CardSet.size(cards);
+        if (size == 7) {
+            return SevenCardTables.evaluate(cards);
+        }
+        if (size != 5) {
+            throw new IllegalArgumentException("Expected 5 or 7 cards, got " + size);
+        }
+        int suit = CardSet.flushSuit(cards);
+        if (suit >= 0) {
+            return FLUSH_TABLE[CardSet.suitMask(cards, suit)];
+        }
+        int key = 0;
+        for (long s = cards; s != 0; s = CardSet.rest(s)) {
+            key += CARD_KEY[CardSet.first(s)];
+        }
+        return RANK_TABLE[key];
+    }
+
+    // Hand category of a strength (HIGH_CARD ... ROYAL_FLUSH)
+    public static int category(int strength) {
+        return strength >>> 20;
+    }
+
+    // Equivalence class of a five-card strength (0 = weakest), or negative if it is not one
+    public static int classIndex(int strength) {
+        return Arrays.binarySearch(CLASS_STRENGTHS, strength);
+    }
+
+    // Strength of an equivalence class
+    public static int classStrength(int classIndex) {
+        return CLASS_STRENGTHS[classIndex];
+    }
+
+    // Display name of a strength, e.g. "Two Pairs"
+    public static String handName(int strength) {
+        return HAND_NAMES[category(strength)];
+    }
+
+    // Display name of a category
+    public static String categoryName(int category) {
+        return HAND_NAMES[category];
+    }
+
+    // Rank index of the i-th most significant rank (0 = the main group)
+    public static int rankAt(int strength, int i) {
+        return (strength >>> (16 - 4 * i)) & 0xF;
+    }
+
+    // Pack a category and up to five significant rank indexes
+    static int pack(int category, int[] ranks, int count) {
+        int strength = category;
+        for (int i = 0; i < 5; i++) {
+            strength = (strength << 4) | (i < count ? ranks[i] : 0);
+        }
+        return strength;
+    }
+
+    // Highest rank index of a five-high to ace-high straight in a rank mask, or -1
+    static int straightHigh(int mask) {
+        return CardSet.straightHigh(mask);
+    }
+
+    // Build RANK_TABLE for every rank multiset with the given number of cards left to place
+    private static void fillRankTable(int[] counts, int rank, int left) {
+        if (rank == 13) {
+            if (left == 0) {
+                int key = 0;
+                for (int r = 0; r < 13; r++) {
+                    key += counts[r] * RANK_KEYS[r];
+                }
+                if (RANK_TABLE[key] != 0) {
+                    throw new IllegalStateException("Rank key collision at " + key);
+                }
+                RANK_TABLE[key] = rankStrength(counts);
+            }
+            return;
+        }
+        for (int c = 0; c <= Math.min(4, left); c++) {
+            counts[rank] = c;
+            fillRankTable(counts, rank + 1, left - c);
+        }
+        counts[rank] = 0;
+    }
+
+    // Strength of a non-flush hand given its rank counts
+    static int rankStrength(int[] counts) {
+        int[] ranks = new int[5];
+        int n = 0;
+        for (int size = 4; size >= 1; size--) {
+            for (int r = 12; r >= 0; r--) {
+                if (counts[r] == size) {
+                    ranks[n++] = r;
+                }
+            }
+        }
+        int largest = counts[ranks[0]];
+        int second = n > 1 ? counts[ranks[1]] : 0;
+        if (largest == 4) {
+            return pack(FOUR_OF_A_KIND, ranks, 2);
+        }
+        if (largest == 3) {
+            return pack(second == 2 ? FULL_HOUSE : THREE_OF_A_KIND, ranks, n);
+        }
+        if (largest == 2) {
+            return pack(second == 2 ? TWO_PAIRS : PAIR, ranks, n);
+        }
+        int mask = 0;
+        for (int i = 0; i < n; i++) {
+            mask |= 1 << ranks[i];
+        }
+        int high = straightHigh(mask);
+        if (high >= 0) {
+            ranks[0] = high;
+            return pack(STRAIGHT, ranks, 1);
+        }
+        return pack(HIGH_CARD, ranks, 5);
+    }
+
+    // Strength of a five-card flush given its rank mask
+    static int flushStrength(int mask) {
+        int high = straightHigh(mask);
+        if (high >= 0) {
+            int[] ranks = {high};
+            return pack(high == 12 ? ROYAL_FLUSH : STRAIGHT_FLUSH, ranks, 1);
+        }
+        int[] ranks = new int[5];
+        int n = 0;
+        for (int r = 12; r >= 0 && n < 5; r--) {
+            if ((mask & (1 << r)) != 0) {
+                ranks[n++] = r;
+            }
+        }
+        return pack(FLUSH, ranks, 5);
+    }
+
+    // Readable dump of a strength, e.g. "Pair [Q, A, 9, 4]"
+    static String describe(int strength) {
+        String[] names = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+        String[] ranks = new String[5];
+        for (int i = 0; i < 5; i++) {
+            ranks[i] = names[rankAt(strength, i)];
+        }
+        return handName(strength) + " " + Arrays.toString(ranks);
+    }
+
+    // Seven-card tables, built on first use so the five-card games never pay for them
+    private static final class SevenCardTables {
+        // Per-rank keys whose sums are unique for every seven-card rank multiset
+        private static final int[] RANK_KEYS_7 = {
+            0, 1, 5, 22, 98, 453, 2031, 8698, 22854, 83661, 262349, 636345, 1479181
+        };
+        private static final int MAX_RANK_KEY_7 = 4 * RANK_KEYS_7[12] + 3 * RANK_KEYS_7[11];
+
+        private static final int[] CARD_KEY_7 = new int[52];
+        // Three bits of suit count per suit; a suit field reaching 5 means a flush
+        private static final int[] CARD_SUIT_COUNT = new int[52];
+        // Flush suit by packed suit counts, or -1
+        private static final byte[] FLUSH_SUIT = new byte[1 << 12];
+
+        // Rank-key sum -> equivalence class, class -> strength
+        private static final char[] RANK_CLASS = new char[MAX_RANK_KEY_7 + 1];
+        private static final int[] CLASS_STRENGTH;
+        // Best flush or straight flush by rank mask of the flush suit (5 to 7 bits)
+        private static final int[] FLUSH_TABLE_7 = new int[1 << 13];
+
+        static {
+            for (int code = 0; code < 52; code++) {
+                CARD_KEY_7[code] = RANK_KEYS_7[code % 13];
+                CARD_SUIT_COUNT[code] = 1 << (3 * (code / 13));
+            }
+            for (int packed = 0; packed < FLUSH_SUIT.length; packed++) {
+                FLUSH_SUIT[packed] = -1;
+                for (int suit = 0; suit < 4; suit++) {
+                    if (((packed >>> (3 * suit)) & 7) >= 5) {
+                        FLUSH_SUIT[packed] = (byte) suit;
+                    }
+                }
+            }
+            int[] strengthByKey = new int[MAX_RANK_KEY_7 + 1];
+            fill(new int[13], 0, 7, strengthByKey);
+            CLASS_STRENGTH = Arrays.stream(strengthByKey).filter(x -> x != 0).distinct().sorted().toArray();
+            for (int key = 0; key <= MAX_RANK_KEY_7; key++) {
+                if (strengthByKey[key] != 0) {
+                    RANK_CLASS[key] = (char) Arrays.binarySearch(CLASS_STRENGTH, strengthByKey[key]);
+                }
+            }
+            for (int mask = 0; mask < FLUSH_TABLE_7.length; mask++) {
+                if (Integer.bitCount(mask) >= 5) {
+                    FLUSH_TABLE_7[mask] = bestFlush(mask);
+                }
+            }
+        }
+
+        static int evaluate(int c0, int c1, int c2, int c3, int c4, int c5, int c6) {
+            int suit = FLUSH_SUIT[CARD_SUIT_COUNT[c0] + CARD_SUIT_COUNT[c1] + CARD_SUIT_COUNT[c2]
+                    + CARD_SUIT_COUNT[c3] + CARD_SUIT_COUNT[c4] + CARD_SUIT_COUNT[c5] + CARD_SUIT_COUNT[c6]];
+            if (suit >= 0) {
+                int mask = flushBit(c0, suit) | flushBit(c1, suit) | flushBit(c2, suit) | flushBit(c3, suit)
+                        | flushBit(c4, suit) | flushBit(c5, suit) | flushBit(c6, suit);
+                return FLUSH_TABLE_7[mask];
+            }
+            return CLASS_STRENGTH[RANK_CLASS[CARD_KEY_7[c0] + CARD_KEY_7[c1] + CARD_KEY_7[c2]
+                    + CARD_KEY_7[c3] + CARD_KEY_7[c4] + CARD_KEY_7[c5] + CARD_KEY_7[c6]]];
+        }
+
+        static int evaluate(long cards) {
+            int suit = CardSet.flushSuit(cards);
+            if (suit >= 0) {
+                return FLUSH_TABLE_7[CardSet.suitMask(cards, suit)];
+            }
+            int key = 0;
+            for (long s = cards; s != 0; s = CardSet.rest(s)) {
+                key += CARD_KEY_7[CardSet.first(s)];
+            }
+            return CLASS_STRENGTH[RANK_CLASS[key]];
+        }
+
+        private static int flushBit(int code, int suit) {
+            return SUIT_BIT[code] == 1 << suit ? CARD_BIT[code] : 0;
+        }
+
+        // Enumerate seven-card rank multisets and record the best five-card strength of each
+        private static void fill(int[] counts, int rank, int left, int[] strengthByKey) {
+            if (rank == 13) {
+                if (left != 0) {
+                    return;
+                }
+                int key = 0;
+                for (int r = 0; r < 13; r++) {
+                    key += counts[r] * RANK_KEYS_7[r];
+                }
+                if (strengthByKey[key] != 0) {
+                    throw new IllegalStateException("Seven-card rank key collision at " + key);
+                }
+                strengthByKey[key] = bestFive(counts, new int[13], 0, 5);
+                return;
+            }
+            for (int c = 0; c <= Math.min(4, left); c++) {
+                counts[rank] = c;
+                fill(counts, rank + 1, left - c, strengthByKey);
+            }
+            counts[rank] = 0;
+        }
+
+        // Best rankStrength over every five-card sub-multiset of counts
+        private static int bestFive(int[] counts, int[] pick, int rank, int left) {
+            if (left == 0) {
+                return rankStrength(pick);
+            }
+            if (rank == 13) {
+                return 0;
+            }
+            int best = 0;
+            for (int c = Math.min(counts[rank], left); c >= 0; c--) {
+                pick[rank] = c;
+                best = Math.max(best, bestFive(counts, pick, rank + 1, left - c));
+            }
+            pick[rank] = 0;
+            return best;
+        }
+
+        // Best five-card flush within a suit's rank mask
+        private static int bestFlush(int mask) {
+            int high = straightHigh(mask);
+            if (high >= 0) {
+                return flushStrength(high == 3 ? 0x100F : 0x1F << (high - 4));
+            }
+            while (Integer.bitCount(mask) > 5) {
+                mask &= mask - 1; // drop the lowest rank
+            }
+            return flushStrength(mask);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+// Shoe.java
+// Multi-deck card shoe, shuffled lazily as it is dealt, with a cursor and a cut card
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// The shoe holds 52 * decks card codes in one int[] that is allocated once and reused
+// for every shuffle. Shuffling is lazy: each deal is one Fisher-Yates step, swapping a
+// uniformly chosen undealt card to the cursor and advancing it, so the dealt prefix is a
+// uniform random sequence and a round costs only the cards it uses. The cut card sits
+// `penetration` of the way into the shoe: once the cursor reaches it, needsShuffle()
+// turns true, the round in progress finishes from the cards behind the cut, and the next
+// round starts from a reshuffled shoe. A cut near the back may leave too few cards behind
+// it for the round; when the last card has been dealt mid-round, the discards of earlier
+// rounds go back in and the round keeps dealing from them, while the cards dealt this
+// round stay out. Rounds start at shuffle() or shuffleIfCut(), so those must be called
+// between rounds; only a round that uses every card in the shoe runs out.
+//
+// Shuffle number n of a shoe (counting from 0) is round n of its ShuffleSource, and every
+// round starts from the cards in code order, so a shoe's deal depends only on the
+// source's seed and the round: replay(round) reproduces it. Reshuffling restores code
+// order by undoing the round's swaps newest first, again one step per dealt card.
+//
+// The shoe also keeps the Hi-Lo running count of everything dealt since the shuffle,
+// updated per card from a tag table, so counting costs one add per deal.
+public final class Shoe {
+    // Hi-Lo tag per card code: 2-6 count +1, 7-9 count 0, tens and Aces count -1
+    private static final int[] HI_LO = hiLoTags();
+
+    private final int decks;
+    private final int[] cards;
+    private final int cut;
+    private final ShuffleSource source;
+    // Position each dealt card was swapped in from
+    private final int[] swaps;
+    private RandomGenerator random;
+    private int cursor;
+    // Cursor when the round in progress started; cards before it are discards
+    private int roundStart;
+    // DeckComposition of the undealt cards
+    private long composition;
+    private int runningCount;
+    // Shuffles so far; the last one was round shuffles - 1
+    private long shuffles;
+
+    // penetration is the dealt fraction at which the cut card comes out, in (0, 1]
+    public Shoe(int decks, double penetration, ShuffleSource source) {
+        if (decks < 1 || decks > DeckComposition.MAX_DECKS) {
+            throw new IllegalArgumentException("Expected 1 to " + DeckComposition.MAX_DECKS + " decks, got " + decks);
+        }
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("Expected a penetration in (0, 1], got " + penetration);
+        }
+        this.decks = decks;
+        this.cards = new int[52 * decks];
+        this.cut = (int) Math.round(penetration * cards.length);
+        this.source = source;
+        this.swaps = new int[cards.length];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = i % 52;
+        }
+        shuffle();
+    }
+
+    // Every card goes back in and the next round's shuffle is dealt
+    public void shuffle() {
+        replay(shuffles);
+    }
+
+    // Deal an earlier (or any) round again: the shoe is shuffled exactly as that round was,
+    // and later shuffles continue from it
+    public void replay(long round) {
+        restoreCodeOrder();
+        random = source.round(round);
+        composition = DeckComposition.ofDecks(decks);
+        runningCount = 0;
+        roundStart = 0;
+        shuffles = round + 1;
+    }
+
+    // Undo every swap, newest first, leaving the cards in code order and nothing dealt
+    private void restoreCodeOrder() {
+        while (cursor > 0) {
+            int i = --cursor;
+            int j = swaps[i];
+            int swap = cards[i];
+            cards[i] = cards[j];
+            cards[j] = swap;
+        }
+    }
+
+    // Call between rounds: reshuffle if the cut card has come out; either way a new round starts
+    public boolean shuffleIfCut() {
+        if (needsShuffle()) {
+            shuffle();
+            return true;
+        }
+        roundStart = cursor;
+        return false;
+    }
+
+    public boolean needsShuffle() {
+        return cursor >= cut;
+    }
+
+    // Next card code (see PokerEvaluator.cardCode)
+    public int deal() {
+        if (cursor == cards.length) {
+            reshuffleDiscards();
+        }
+        int j = cursor + random.nextInt(cards.length - cursor);
+        int code = cards[j];
+        cards[j] = cards[cursor];
+        cards[cursor] = code;
+        swaps[cursor++] = j;
+        composition = DeckComposition.remove(composition, DeckComposition.rankOf(code));
+        runningCount += HI_LO[code];
+        return code;
+    }
+
+    // Put the discards back and deal on: every card goes back in code order, then the cards
+    // of the round in progress are dealt again as the new prefix. The swaps stay in the log,
+    // so shuffle() still restores code order, and the next card comes from the same random
+    // sequence, so a replayed round runs out and continues identically.
+    private void reshuffleDiscards() {
+        if (roundStart == 0) {
+            throw new IllegalStateException("Shoe of " + decks + " deck(s) is empty and has no discards");
+        }
+        int[] inPlay = Arrays.copyOfRange(cards, roundStart, cursor);
+        restoreCodeOrder();
+        composition = DeckComposition.ofDecks(decks);
+        runningCount = 0;
+        roundStart = 0;
+        for (int code : inPlay) {
+            int j = cursor;
+            while (cards[j] != code) {
+                j++;
+            }
+            cards[j] = cards[cursor];
+            cards[cursor] = code;
+            swaps[cursor++] = j;
+            composition = DeckComposition.remove(composition, DeckComposition.rankOf(code));
+            runningCount += HI_LO[code];
+        }
+    }
+
+    private static int[] hiLoTags() {
+        int[] tags = new int[52];
+        for (int code = 0; code < 52; code++) {
+            int rank = DeckComposition.rankOf(code);
+            tags[code] = rank >= 2 && rank <= 6 ? 1 : rank == 1 || rank == 10 ? -1 : 0;
+        }
+        return tags;
+    }
+
+    public int decks() {
+        return decks;
+    }
+
+    public int size() {
+        return cards.length;
+    }
+
+    public int dealt() {
+        return cursor;
+    }
+
+    public int remaining() {
+        return cards.length - cursor;
+    }
+
+    // Blackjack rank counts of the undealt cards
+    public long composition() {
+        return composition;
+    }
+
+    // Hi-Lo running count of the cards dealt since the last shuffle
+    public int runningCount() {
+        return runningCount;
+    }
+
+    // Running count per deck left in the shoe
+    public double trueCount() {
+        int remaining = remaining();
+        return remaining == 0 ? 0 : runningCount * 52.0 / remaining;
+    }
+
+    public long shuffles() {
+        return shuffles;
+    }
+
+    // The current deal as "seed/round", enough to replay it
+    public String dealId() {
+        return String.format("%016x/%d", source.seed(), shuffles - 1);
+    }
+}
@@ -0,0 +1,95 @@
+// ShoeMemo.java
+// Bounded open-addressing memo from (remaining shoe, hand state) to a row of floats
+import java.util.Arrays;
+
+// Blackjack solvers memoize millions of positions, so keys and values live in parallel
+// primitive arrays instead of boxed map entries: a lookup is a hash, a probe and a few
+// array reads. A state is never 0, which marks an empty slot. When the memo reaches its
+// entry limit it is cleared wholesale; every value can be recomputed, and a full reset
+// keeps slots stable in between, which lets callers read a row by slot right away.
+final class ShoeMemo {
+    private final int width;
+    private final int maxEntries;
+    private long[] shoes;
+    private int[] states;
+    private float[] values;
+    private int size;
+    private long evictions;
+
+    ShoeMemo(int width, int maxEntries) {
+        this.width = width;
+        this.maxEntries = maxEntries;
+        allocate(1 << 12);
+    }
+
+    private void allocate(int capacity) {
+        shoes = new long[capacity];
+        states = new int[capacity];
+        values = new float[capacity * width];
+    }
+
+    // Slot holding the key, or the complement of the empty slot where it belongs
+    int find(long shoe, int state) {
+        int mask = states.length - 1;
+        long h = (shoe + state) * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h >>> 40) & mask;
+        while (states[slot] != 0) {
+            if (states[slot] == state && shoes[slot] == shoe) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ~slot;
+    }
+
+    // Store a row for a key that is not present yet and return its slot
+    int insert(long shoe, int state, double[] row) {
+        if (size >= maxEntries) {
+            clear();
+            evictions++;
+        } else if (4 * (size + 1) > 3 * states.length) {
+            grow();
+        }
+        int slot = ~find(shoe, state);
+        shoes[slot] = shoe;
+        states[slot] = state;
+        for (int i = 0; i < width; i++) {
+            values[slot * width + i] = (float) row[i];
+        }
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldShoes = shoes;
+        int[] oldStates = states;
+        float[] oldValues = values;
+        allocate(2 * oldStates.length);
+        for (int i = 0; i < oldStates.length; i++) {
+            if (oldStates[i] != 0) {
+                int slot = ~find(oldShoes[i], oldStates[i]);
+                shoes[slot] = oldShoes[i];
+                states[slot] = oldStates[i];
+                System.arraycopy(oldValues, i * width, values, slot * width, width);
+            }
+        }
+    }
+
+    float value(int slot, int i) {
+        return values[slot * width + i];
+    }
+
+    void clear() {
+        Arrays.fill(states, 0);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Number of times the memo hit its limit and was reset
+    long evictions() {
+        return evictions;
+    }
+}
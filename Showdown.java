@@ -0,0 +1,122 @@
+// Showdown.java
+// N-seat poker showdown: total ranking plus split-pot groups
+import java.util.Arrays;
+
+// Each seat's strength is evaluated exactly once. Seats are then ordered by a single
+// sort of (strength, seat) packed into longs, and one sweep over that order assigns
+// every seat its place; seats sharing a strength share a place and split that pot.
+public final class Showdown {
+    public static final int MAX_SEATS = 10;
+
+    private Showdown() {
+    }
+
+    // Ranking of one showdown
+    public static final class Result {
+        private final int[] strengths;
+        private final int[] order;
+        private final int[] place;
+        private final int groupCount;
+
+        Result(int[] strengths, int[] order, int[] place, int groupCount) {
+            this.strengths = strengths;
+            this.order = order;
+            this.place = place;
+            this.groupCount = groupCount;
+        }
+
+        public int seats() {
+            return strengths.length;
+        }
+
+        // Packed PokerEvaluator strength of a seat
+        public int strength(int seat) {
+            return strengths[seat];
+        }
+
+        // Seat ranked i-th (0 = best); equal hands keep seat order
+        public int seatAt(int i) {
+            return order[i];
+        }
+
+        // Place of a seat, 0 = winner(s); seats with equal strength share a place
+        public int place(int seat) {
+            return place[seat];
+        }
+
+        // Number of distinct places (split-pot groups)
+        public int groupCount() {
+            return groupCount;
+        }
+
+        // Seats sharing the given place, in seat order
+        public int[] group(int placeIndex) {
+            int size = 0;
+            for (int p : place) {
+                if (p == placeIndex) {
+                    size++;
+                }
+            }
+            int[] seats = new int[size];
+            int n = 0;
+            for (int i = 0; i < order.length; i++) {
+                if (place[order[i]] == placeIndex) {
+                    seats[n++] = order[i];
+                }
+            }
+            return seats;
+        }
+
+        public int[] winners() {
+            return group(0);
+        }
+
+        public boolean isSplit() {
+            return order.length > 1 && strengths[order[0]] == strengths[order[1]];
+        }
+    }
+
+    // Rank five- or seven-card hands, one CardSet per seat
+    public static Result rank(long[] hands) {
+        int[] strengths = new int[hands.length];
+        for (int seat = 0; seat < hands.length; seat++) {
+            strengths[seat] = PokerEvaluator.evaluate(hands[seat]);
+        }
+        return rankStrengths(strengths);
+    }
+
+    // Rank Hold'em seats: each seat's hole cards plus the shared five-card board
+    public static Result rank(long board, long[] holeCards) {
+        int[] strengths = new int[holeCards.length];
+        for (int seat = 0; seat < holeCards.length; seat++) {
+            strengths[seat] = PokerEvaluator.evaluate(board | holeCards[seat]);
+        }
+        return rankStrengths(strengths);
+    }
+
+    // Rank seats whose strengths are already known
+    public static Result rankStrengths(int[] strengths) {
+        int seats = strengths.length;
+        if (seats < 1 || seats > MAX_SEATS) {
+            throw new IllegalArgumentException("Expected 1 to " + MAX_SEATS + " seats, got " + seats);
+        }
+        // Strength high, seat inverted low, so an ascending sort read backwards is best-first
+        long[] keys = new long[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            keys[seat] = ((long) strengths[seat] << 8) | (MAX_SEATS - seat);
+        }
+        Arrays.sort(keys);
+        int[] order = new int[seats];
+        int[] place = new int[seats];
+        int groups = 0;
+        for (int i = 0; i < seats; i++) {
+            int seat = MAX_SEATS - (int) (keys[seats - 1 - i] & 0xFF);
+            order[i] = seat;
+            if (i > 0 && strengths[seat] != strengths[order[i - 1]]) {
+                groups++;
+            }
+            place[seat] = groups;
+        }
+        return new Result(strengths, order, place, groups + 1);
+    }
+}
@@ -0,0 +1,102 @@
+// ShuffleSource.java
+// Seedable, splittable per-table shuffle randomness; every deal replays from (seed, round)
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+// A table owns one source and asks it for the generator of each round (each shuffle of
+// its shoe). The built-in source derives that generator from (seed, round) alone, so a
+// reported deal is reproduced from the two numbers without replaying earlier rounds.
+// Tables never share a source: split() hands each one a child with its own derived seed,
+// so concurrent tables do not contend on a generator and one seed still pins a whole
+// session. Other sources (a stacked deck, a hardware generator) plug in by implementing
+// the interface.
+//
+// The built-in source reseeds one SplitMix64 generator per round instead of allocating
+// one; Shoe draws from it one Fisher-Yates step per card dealt.
+public interface ShuffleSource {
+    // Seed the source was made from; with a round number it identifies a deal
+    long seed();
+
+    // Generator for a round; valid until the next call on this source
+    RandomGenerator round(long round);
+
+    // Independent source for another table, itself determined by this source's seed
+    ShuffleSource split();
+
+    // Source of a fixed seed
+    static ShuffleSource seeded(long seed) {
+        return new Seeded(seed);
+    }
+
+    // Source of an unpredictable seed
+    static ShuffleSource fresh() {
+        return new Seeded(Seeded.freshSeed());
+    }
+
+    // Root source of a session: the cardsaga.seed property when set, otherwise fresh
+    static ShuffleSource defaultSource() {
+        Long seed = Long.getLong("cardsaga.seed");
+        return seed != null ? seeded(seed) : fresh();
+    }
+
+    // Rounds are SplitMix64 streams starting from a mix of (seed, round); children of
+    // split() are seeded from a mix of (seed, child index)
+    final class Seeded implements ShuffleSource {
+        private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+        private static final long SPLIT_SALT = 0xD1B54A32D192ED03L;
+        private static final AtomicLong FRESH = new AtomicLong(System.nanoTime());
+
+        private final long seed;
+        private final SplitMix generator = new SplitMix();
+        private long splits;
+
+        private Seeded(long seed) {
+            this.seed = seed;
+        }
+
+        static long freshSeed() {
+            return mix(FRESH.addAndGet(GOLDEN) ^ System.nanoTime());
+        }
+
+        @Override
+        public long seed() {
+            return seed;
+        }
+
+        @Override
+        public RandomGenerator round(long round) {
+            if (round < 0) {
+                throw new IllegalArgumentException("Expected a round >= 0, got " + round);
+            }
+            generator.state = mix(seed + mix(round));
+            return generator;
+        }
+
+        @Override
+        public ShuffleSource split() {
+            return new Seeded(mix((seed ^ SPLIT_SALT) + ++splits * GOLDEN));
+        }
+
+        // Stafford's variant 13 finalizer
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        private static final class SplitMix implements RandomGenerator {
+            long state;
+
+            @Override
+            public long nextLong() {
+                state += GOLDEN;
+                return mix(state);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("seed %016x", seed);
+        }
+    }
+}